@@ -0,0 +1,65 @@
+package com.study.inflearnrestapi.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of API and token requests in flight. Once the cap is reached new requests get 503 with
+ * {@code Retry-After} straight away instead of queueing on the connection pool. Async requests (long polls, SSE)
+ * give their permit back when the servlet thread is released.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final Semaphore permits;
+    private final Counter rejections;
+
+    public AdmissionControlFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.permits = new Semaphore(properties.getMaxConcurrentRequests());
+        this.rejections = RateLimitResponses.rejections(meterRegistry, "concurrency");
+        Gauge.builder("my-app.requests.in-flight", this.permits,
+                        p -> properties.getMaxConcurrentRequests() - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!this.properties.isEnabled()) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.startsWith("/api/") || path.equals("/oauth/token"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!this.permits.tryAcquire()) {
+            this.rejections.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            this.permits.release();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.study.inflearnrestapi.common;
+
+import com.study.inflearnrestapi.events.EventController;
+import com.study.inflearnrestapi.index.IndexController;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Builds the links of the event and index resources by string concatenation. The base URIs are resolved
+ * through {@code WebMvcLinkBuilder} once per host and forwarded-header combination and then reused.
+ */
+@Component
+public class ApiLinks {
+
+    private static final int MAX_CACHED_BASES = 256;
+    private static final String[] KEY_HEADERS = {
+            "Host", "Forwarded", "X-Forwarded-Host", "X-Forwarded-Port", "X-Forwarded-Proto", "X-Forwarded-Prefix", "X-Forwarded-Ssl"
+    };
+
+    private final Map<String, Bases> basesByKey = new ConcurrentHashMap<>();
+
+    public Link events(String rel) {
+        return Link.of(bases().events, rel);
+    }
+
+    public Link event(Integer id) {
+        return event(id, IanaLinkRelations.SELF.value());
+    }
+
+    public Link event(Integer id, String rel) {
+        return Link.of(bases().events + "/" + id, rel);
+    }
+
+    public Link eventUpdate(String ticketId) {
+        return Link.of(bases().events + "/updates/" + ticketId);
+    }
+
+    public Link eventsNearby(double lat, double lon, Double radiusKm, int size) {
+        StringBuilder href = new StringBuilder(bases().events).append("/nearby?lat=").append(lat).append("&lon=").append(lon);
+        if (radiusKm != null) {
+            href.append("&radiusKm=").append(radiusKm);
+        }
+        return Link.of(href.append("&size=").append(size).toString());
+    }
+
+    public Link eventsUpcoming(int size) {
+        return Link.of(bases().events + "/upcoming?size=" + size);
+    }
+
+    public URI eventUri(Integer id) {
+        return URI.create(bases().events + "/" + id);
+    }
+
+    public Link index(String rel) {
+        return Link.of(bases().index, rel);
+    }
+
+    private Bases bases() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return Bases.resolve();
+        }
+
+        String key = cacheKey(((ServletRequestAttributes) attributes).getRequest());
+        Bases bases = this.basesByKey.get(key);
+        if (bases == null) {
+            if (this.basesByKey.size() >= MAX_CACHED_BASES) {
+                this.basesByKey.clear();
+            }
+            bases = Bases.resolve();
+            this.basesByKey.put(key, bases);
+        }
+        return bases;
+    }
+
+    public String cacheKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(64)
+                .append(request.getScheme()).append('|')
+                .append(request.getServerName()).append('|')
+                .append(request.getServerPort()).append('|')
+                .append(request.getContextPath());
+        for (String header : KEY_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                key.append('|').append(header).append('=').append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    private static class Bases {
+        private final String events;
+        private final String index;
+
+        private Bases(String events, String index) {
+            this.events = events;
+            this.index = index;
+        }
+
+        static Bases resolve() {
+            return new Bases(linkTo(EventController.class).toUri().toString(),
+                    linkTo(methodOn(IndexController.class).index()).toUri().toString());
+        }
+    }
+}
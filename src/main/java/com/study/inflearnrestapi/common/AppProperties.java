@@ -29,4 +29,10 @@ public class AppProperties {
 
     @NotEmpty
     private String clientSecret;
+
+    /** Seed the admin and user accounts on a background thread instead of before the application is ready. */
+    private boolean seedAsync;
+
+    /** Close the application right after the context has started, e.g. for an AppCDS training run. */
+    private boolean exitAfterStartup;
 }
@@ -0,0 +1,25 @@
+package com.study.inflearnrestapi.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "my-app.idempotency")
+@Component
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    /** How long the response to an {@code Idempotency-Key} is replayed for a retry. */
+    private long ttlSeconds = 86_400;
+
+    /** Responses kept in memory; older ones are still replayed from the database until they expire. */
+    private int maxEntries = 10_000;
+
+    /** How long a duplicate waits for the first request before it gets 409. */
+    private long waitTimeoutMs = 10_000;
+
+    private long purgeIntervalMs = 600_000;
+}
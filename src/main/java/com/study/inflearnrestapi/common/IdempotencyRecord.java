@@ -0,0 +1,30 @@
+package com.study.inflearnrestapi.common;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The response stored for an {@code Idempotency-Key}. A row without a status belongs to a request that is still
+ * being executed.
+ */
+@Entity
+@Table(indexes = @Index(columnList = "createdAt"))
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Builder @NoArgsConstructor @AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    private String id;
+    @Version
+    private Long version;
+    private String fingerprint;
+    private Integer status;
+    @Column(length = 2048)
+    private String location;
+    private String contentType;
+    @Lob
+    private byte[] body;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.study.inflearnrestapi.common;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.status is null")
+    int deleteInFlight(String id);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.version = :version")
+    int deleteByIdAndVersion(String id, Long version);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
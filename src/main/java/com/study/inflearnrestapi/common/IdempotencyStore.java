@@ -0,0 +1,254 @@
+package com.study.inflearnrestapi.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Responses stored per {@code Idempotency-Key}. The latest {@code maxEntries} keys are kept in memory, where a
+ * duplicate of a request that is still running waits for its response instead of running again. Every key is also
+ * claimed with a row in the database, so that a key evicted from memory, or used on another node, is still executed
+ * only once. A claim whose request never finished (the node went away) is taken over after the wait timeout.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private static final long POLL_MS = 50;
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Entry> entries;
+
+    public IdempotencyStore(IdempotencyProperties properties, IdempotencyRecordRepository repository,
+                            PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+    }
+
+    /**
+     * Decides what to do with a request for {@code key}: execute it, replay the stored response, or reject it because
+     * the key was used for a different request or the first request is still running.
+     * A claim to execute must be followed by {@link #complete} or {@link #release}.
+     */
+    public Claim claim(String key, String fingerprint) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.properties.getWaitTimeoutMs());
+        while (true) {
+            Entry entry;
+            boolean first = false;
+            synchronized (this.entries) {
+                entry = this.entries.get(key);
+                if (entry != null && entry.isExpired()) {
+                    this.entries.remove(key);
+                    entry = null;
+                }
+                if (entry == null) {
+                    entry = new Entry(key, fingerprint, System.nanoTime() + TimeUnit.SECONDS.toNanos(this.properties.getTtlSeconds()));
+                    this.entries.put(key, entry);
+                    first = true;
+                }
+            }
+
+            if (!entry.fingerprint.equals(fingerprint)) {
+                return new Claim(Claim.Type.MISMATCH, null, null);
+            }
+            if (first) {
+                return claimRecord(entry, startedAt, deadline);
+            }
+
+            Response response;
+            try {
+                response = entry.response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return new Claim(Claim.Type.IN_PROGRESS, null, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Claim(Claim.Type.IN_PROGRESS, null, null);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            if (response != null) {
+                return new Claim(Claim.Type.REPLAY, response, null);
+            }
+            // The first request did not keep its response, so this one may run instead
+        }
+    }
+
+    public void complete(Claim claim, Response response) {
+        Entry entry = claim.entry;
+        entry.response.complete(response);
+        try {
+            this.transactionTemplate.executeWithoutResult(tx -> this.repository.findById(entry.key).ifPresent(record -> {
+                record.setStatus(response.getStatus());
+                record.setLocation(response.getLocation());
+                record.setContentType(response.getContentType());
+                record.setBody(response.getBody());
+            }));
+        } catch (DataAccessException e) {
+            log.warn("Could not store the response for an idempotency key, it is only replayed from memory", e);
+        }
+    }
+
+    /**
+     * Gives the key up without a response, for requests that failed in a way a retry may fix.
+     */
+    public void release(Claim claim) {
+        Entry entry = claim.entry;
+        remove(entry);
+        try {
+            this.transactionTemplate.executeWithoutResult(tx -> this.repository.deleteInFlight(entry.key));
+        } catch (DataAccessException e) {
+            log.warn("Could not release an idempotency key, retries wait until it is taken over", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${my-app.idempotency.purge-interval-ms:600000}",
+            fixedDelayString = "${my-app.idempotency.purge-interval-ms:600000}")
+    public void purge() {
+        synchronized (this.entries) {
+            for (Iterator<Entry> it = this.entries.values().iterator(); it.hasNext(); ) {
+                if (it.next().isExpired()) {
+                    it.remove();
+                }
+            }
+        }
+        this.transactionTemplate.executeWithoutResult(tx -> this.repository.deleteCreatedBefore(
+                LocalDateTime.now().minusSeconds(this.properties.getTtlSeconds())));
+    }
+
+    int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    private Claim claimRecord(Entry entry, LocalDateTime startedAt, long deadline) {
+        while (true) {
+            try {
+                this.repository.saveAndFlush(IdempotencyRecord.builder()
+                        .id(entry.key)
+                        .fingerprint(entry.fingerprint)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+                return new Claim(Claim.Type.EXECUTE, null, entry);
+            } catch (DataIntegrityViolationException e) {
+                // Claimed before, by a request whose entry has left memory or by another node
+            } catch (DataAccessException e) {
+                log.warn("Could not claim an idempotency key in the database, only this node deduplicates it", e);
+                return new Claim(Claim.Type.EXECUTE, null, entry);
+            }
+
+            IdempotencyRecord record = this.transactionTemplate.execute(tx -> this.repository.findById(entry.key).orElse(null));
+            if (record == null) {
+                continue;
+            }
+            // Only a claim that was already stale when this request arrived is taken over, never one that merely
+            // outlived this request's own wait
+            if (record.getCreatedAt().isBefore(LocalDateTime.now().minusSeconds(this.properties.getTtlSeconds()))
+                    || (record.getStatus() == null && record.getCreatedAt().isBefore(
+                            startedAt.minusNanos(TimeUnit.MILLISECONDS.toNanos(this.properties.getWaitTimeoutMs()))))) {
+                this.transactionTemplate.executeWithoutResult(tx ->
+                        this.repository.deleteByIdAndVersion(record.getId(), record.getVersion()));
+                continue;
+            }
+            if (!record.getFingerprint().equals(entry.fingerprint)) {
+                remove(entry);
+                return new Claim(Claim.Type.MISMATCH, null, null);
+            }
+            if (record.getStatus() != null) {
+                Response response = new Response(record.getStatus(), record.getLocation(), record.getContentType(),
+                        record.getBody() == null ? new byte[0] : record.getBody());
+                entry.response.complete(response);
+                return new Claim(Claim.Type.REPLAY, response, null);
+            }
+            if (System.nanoTime() >= deadline) {
+                remove(entry);
+                return new Claim(Claim.Type.IN_PROGRESS, null, null);
+            }
+            try {
+                Thread.sleep(POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                remove(entry);
+                return new Claim(Claim.Type.IN_PROGRESS, null, null);
+            }
+        }
+    }
+
+    private void remove(Entry entry) {
+        synchronized (this.entries) {
+            this.entries.remove(entry.key, entry);
+        }
+        entry.response.complete(null);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Response {
+        private final int status;
+        private final String location;
+        private final String contentType;
+        private final byte[] body;
+    }
+
+    public static class Claim {
+
+        public enum Type {
+            EXECUTE, REPLAY, MISMATCH, IN_PROGRESS
+        }
+
+        @Getter
+        private final Type type;
+        @Getter
+        private final Response response;
+        private final Entry entry;
+
+        Claim(Type type, Response response, Entry entry) {
+            this.type = type;
+            this.response = response;
+            this.entry = entry;
+        }
+    }
+
+    private static class Entry {
+        private final String key;
+        private final String fingerprint;
+        private final long expiresAt;
+        /** Completed with the response, or with {@code null} when the request gave the key up. */
+        private final CompletableFuture<Response> response = new CompletableFuture<>();
+
+        Entry(String key, String fingerprint, long expiresAt) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - this.expiresAt > 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.study.inflearnrestapi.common;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "my-app.rate-limit")
+@Component
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Token requests per second allowed for the registered OAuth client, or for one remote address. */
+    private double tokenPermitsPerSecond = 20;
+
+    private int tokenBurst = 100;
+
+    /** Event writes per second allowed for one principal. */
+    private double writePermitsPerSecond = 10;
+
+    private int writeBurst = 50;
+
+    /** Requests handled at the same time before new ones are shed with 503. Keep it near the DB pool size. */
+    private int maxConcurrentRequests = 64;
+
+    private int maxKeys = 100_000;
+}
@@ -0,0 +1,30 @@
+package com.study.inflearnrestapi.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+public final class RateLimitResponses {
+
+    public static final String REJECTIONS_METRIC = "my-app.requests.rejected";
+
+    private RateLimitResponses() {
+    }
+
+    public static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(REJECTIONS_METRIC)
+                .description("Requests rejected by rate limiting or admission control")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public static void tooManyRequests(HttpServletResponse response, long retryAfterNanos) {
+        long seconds = Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+    }
+}
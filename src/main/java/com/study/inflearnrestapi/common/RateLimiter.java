@@ -0,0 +1,91 @@
+package com.study.inflearnrestapi.common;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per key. Each bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the generic cell rate algorithm), so taking a token is one compare-and-set with no lock. About {@code maxKeys}
+ * buckets are kept: when a new key pushes the count over, one caller sweeps out the buckets that are full again,
+ * which loses nothing since a new bucket starts full, and if that is not enough drops arbitrary buckets down to
+ * nine tenths of {@code maxKeys}. A key whose bucket was dropped starts over with a full one.
+ */
+public class RateLimiter {
+
+    private final long nanosPerPermit;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        this(permitsPerSecond, burst, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, int burst, int maxKeys, LongSupplier nanoClock) {
+        this.nanosPerPermit = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = this.nanosPerPermit * Math.max(1, burst);
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one token from the bucket of the given key.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next one is available
+     */
+    public long tryAcquire(String key) {
+        long now = this.nanoClock.getAsLong();
+        AtomicLong bucket = this.buckets.get(key);
+        if (bucket == null) {
+            bucket = this.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            long waitNanos = take(bucket, now);
+            if (this.buckets.size() > this.maxKeys) {
+                evict(now);
+            }
+            return waitNanos;
+        }
+        return take(bucket, now);
+    }
+
+    private long take(AtomicLong bucket, long now) {
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + this.nanosPerPermit;
+            long waitNanos = next - this.burstNanos - now;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private void evict(long now) {
+        if (!this.evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.buckets.values().removeIf(bucket -> bucket.get() <= now);
+            int target = this.maxKeys - this.maxKeys / 10;
+            for (Iterator<AtomicLong> iterator = this.buckets.values().iterator();
+                 iterator.hasNext() && this.buckets.size() > target; ) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            this.evicting.set(false);
+        }
+    }
+
+    int size() {
+        return this.buckets.size();
+    }
+}
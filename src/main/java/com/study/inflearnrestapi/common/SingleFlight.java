@@ -0,0 +1,91 @@
+package com.study.inflearnrestapi.common;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent calls for the same key share one execution. The first caller runs the loader on its own thread and
+ * the others wait for its result. A waiter that is not answered within the timeout runs the loader itself, and once
+ * {@code maxInFlight} keys are pending new keys are not coalesced at all, so memory stays bounded.
+ * Only use it for reads whose result is not modified by the callers. After a write, {@link #forget} the keys it
+ * touched so that later callers start a new load instead of joining one that began before the write.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final int maxInFlight;
+
+    public SingleFlight(long timeoutMs, int maxInFlight) {
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.maxInFlight = maxInFlight;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> existing = this.inFlight.get(key);
+        if (existing == null) {
+            if (this.inFlight.size() >= this.maxInFlight) {
+                return loader.get();
+            }
+            CompletableFuture<V> future = new CompletableFuture<>();
+            existing = this.inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                return lead(key, future, loader);
+            }
+        }
+        return await(existing, loader);
+    }
+
+    /**
+     * Stops later calls for {@code key} from joining the load in flight; callers already waiting still get its result.
+     */
+    public void forget(K key) {
+        this.inFlight.remove(key);
+    }
+
+    public void forgetAll() {
+        this.inFlight.clear();
+    }
+
+    int inFlight() {
+        return this.inFlight.size();
+    }
+
+    private V lead(K key, CompletableFuture<V> future, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.inFlight.remove(key, future);
+        }
+    }
+
+    private V await(CompletableFuture<V> future, Supplier<V> loader) {
+        try {
+            return future.get(this.timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
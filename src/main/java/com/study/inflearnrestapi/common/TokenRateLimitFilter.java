@@ -0,0 +1,77 @@
+package com.study.inflearnrestapi.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Limits {@code /oauth/token} per OAuth client id. It runs ahead of Spring Security, so a throttled client never
+ * reaches the bcrypt check of its secret or of the user's password. The client id is not authenticated yet, so only
+ * the registered client gets a bucket of its own; any other id shares the bucket of its remote address.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@Component
+public class TokenRateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final AppProperties appProperties;
+    private final RateLimiter rateLimiter;
+    private final Counter rejections;
+
+    public TokenRateLimitFilter(RateLimitProperties properties, AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.appProperties = appProperties;
+        this.rateLimiter = new RateLimiter(properties.getTokenPermitsPerSecond(), properties.getTokenBurst(), properties.getMaxKeys());
+        this.rejections = RateLimitResponses.rejections(meterRegistry, "client");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !this.properties.isEnabled()
+                || !request.getRequestURI().substring(request.getContextPath().length()).equals("/oauth/token");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long retryAfterNanos = this.rateLimiter.tryAcquire(clientKey(request));
+        if (retryAfterNanos > 0) {
+            this.rejections.increment();
+            RateLimitResponses.tooManyRequests(response, retryAfterNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    String clientKey(HttpServletRequest request) {
+        String clientId = clientId(request);
+        return clientId != null && clientId.equals(this.appProperties.getClientId())
+                ? "client:" + clientId
+                : "address:" + request.getRemoteAddr();
+    }
+
+    private static String clientId(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.regionMatches(true, 0, "Basic ", 0, 6)) {
+            try {
+                String credentials = new String(Base64.getDecoder().decode(authorization.substring(6).trim()), StandardCharsets.UTF_8);
+                int colon = credentials.indexOf(':');
+                return colon < 0 ? credentials : credentials.substring(0, colon);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return request.getParameter("client_id");
+    }
+}
@@ -1,20 +1,30 @@
 package com.study.inflearnrestapi.config;
 
 import com.study.inflearnrestapi.accounts.Account;
+import com.study.inflearnrestapi.accounts.AccountRepository;
 import com.study.inflearnrestapi.accounts.AccountRole;
 import com.study.inflearnrestapi.accounts.AccountService;
 import com.study.inflearnrestapi.common.AppProperties;
+import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Set;
 
+@Slf4j
+@EnableScheduling
 @Configuration
 public class AppConfig {
 
@@ -36,26 +46,54 @@ public class AppConfig {
             @Autowired
             AccountService accountService;
 
+            @Autowired
+            AccountRepository accountRepository;
+
             @Autowired
             AppProperties appProperties;
 
             @Override
             public void run(ApplicationArguments args) throws Exception {
+                if (appProperties.isSeedAsync()) {
+                    Thread seeder = new Thread(this::seedAccounts, "account-seeder");
+                    seeder.setDaemon(true);
+                    seeder.start();
+                } else {
+                    seedAccounts();
+                }
+            }
 
-                Account admin = Account.builder()
+            private void seedAccounts() {
+                saveIfAbsent(Account.builder()
                         .email(appProperties.getAdminUsername())
                         .password(appProperties.getAdminPassword())
                         .roles(Set.of(AccountRole.ADMIN, AccountRole.USER))
-                        .build();
-                accountService.saveAccount(admin);
+                        .build());
 
-                Account user = Account.builder()
+                saveIfAbsent(Account.builder()
                         .email(appProperties.getUserUsername())
                         .password(appProperties.getUserPassword())
                         .roles(Set.of(AccountRole.USER))
-                        .build();
-                accountService.saveAccount(user);
+                        .build());
+            }
+
+            private void saveIfAbsent(Account account) {
+                if (accountRepository.findByEmail(account.getEmail()).isPresent()) {
+                    return;
+                }
+                try {
+                    accountService.saveAccount(account);
+                } catch (DataIntegrityViolationException e) {
+                    // Another instance seeded the same account first
+                    log.debug("Account {} already exists", account.getEmail());
+                }
             }
         };
     }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "my-app", name = "exit-after-startup", havingValue = "true")
+    public ApplicationListener<ApplicationStartedEvent> exitAfterStartup() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
 }
@@ -0,0 +1,63 @@
+package com.study.inflearnrestapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single {@code spring.datasource} pool with {@link ReadWriteRoutingDataSource} when
+ * {@code my-app.datasource.routing.enabled=true}. {@code spring.datasource.*} stays the primary and
+ * {@code my-app.datasource.routing.replicas[n].*} lists the replicas. The primary pool is configured by
+ * {@code spring.datasource.hikari.*} as without routing, and each replica by its own
+ * {@code my-app.datasource.routing.replicas[n].hikari.*}.
+ */
+@ConditionalOnProperty(prefix = "my-app.datasource.routing", name = "enabled", havingValue = "true")
+@Lazy(false)
+@Configuration
+public class DataSourceRoutingConfig {
+
+    @Autowired
+    ObjectProvider<ReadWriteRoutingDataSource> readWriteRoutingDataSource;
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                 DataSourceRoutingProperties routingProperties,
+                                                                 Environment environment) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routingProperties.getReplicas().size(); i++) {
+            DataSourceRoutingProperties.Replica replica = routingProperties.getReplicas().get(i);
+            replicas.add(HikariDataSources.create(replica.getUrl(), replica.getUsername(), replica.getPassword(),
+                    replica.getDriverClassName(), "replica-" + i, replica.getHikari()));
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas,
+                routingProperties.getReadYourWritesMs(), routingProperties.getMaxTrackedWriters());
+    }
+
+    @Primary
+    @Bean
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Scheduled(fixedDelayString = "${my-app.datasource.routing.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        this.readWriteRoutingDataSource.ifAvailable(ReadWriteRoutingDataSource::checkReplicas);
+    }
+}
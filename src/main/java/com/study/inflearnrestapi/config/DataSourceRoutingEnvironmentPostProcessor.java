@@ -0,0 +1,29 @@
+package com.study.inflearnrestapi.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Makes JPA give its connection back after every transaction when {@link ReadWriteRoutingDataSource} is on. With
+ * open-in-view and Hibernate's default of holding the connection for the whole session, the connection of a request's
+ * first read-only query (a replica) would also be used for its later writes. The defaults are added last, so explicit
+ * configuration still wins.
+ */
+public class DataSourceRoutingEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String PROPERTY_SOURCE_NAME = "dataSourceRoutingDefaults";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty("my-app.datasource.routing.enabled", Boolean.class, false)) {
+            return;
+        }
+        environment.getPropertySources().addLast(new MapPropertySource(PROPERTY_SOURCE_NAME, Map.of(
+                "spring.jpa.open-in-view", "false",
+                "spring.jpa.properties.hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION")));
+    }
+}
@@ -0,0 +1,43 @@
+package com.study.inflearnrestapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "my-app.datasource.routing")
+@Component
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** How long a principal's reads stay on the primary after it wrote. */
+    private long readYourWritesMs = 5000;
+
+    private long healthCheckIntervalMs = 5000;
+
+    private int maxTrackedWriters = 100_000;
+
+    @Getter @Setter
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private String driverClassName;
+
+        /** Pool settings for this replica, named like {@code spring.datasource.hikari.*}. */
+        private Map<String, String> hikari = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,60 @@
+package com.study.inflearnrestapi.config;
+
+import com.study.inflearnrestapi.accounts.Account;
+import com.study.inflearnrestapi.events.Event;
+import com.study.inflearnrestapi.events.EventShardingProperties;
+import com.study.inflearnrestapi.events.EventShards;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.orm.jpa.hibernate.SpringPhysicalNamingStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds one entity manager factory per {@code my-app.events.sharding.shards[n]} when
+ * {@code my-app.events.sharding.enabled=true}. Accounts and the published outbox stay on {@code spring.datasource}.
+ * Each shard's pool is configured by {@code my-app.events.sharding.shards[n].hikari.*} and closed with {@link EventShards}.
+ */
+@ConditionalOnProperty(prefix = "my-app.events.sharding", name = "enabled", havingValue = "true")
+@Configuration
+public class EventShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public EventShards eventShards(EntityManagerFactoryBuilder builder, EventShardingProperties properties,
+                                   ConfigurableListableBeanFactory beanFactory) {
+        List<DataSource> dataSources = new ArrayList<>();
+        List<EntityManagerFactory> entityManagerFactories = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            EventShardingProperties.Shard shard = properties.getShards().get(i);
+            DataSource dataSource = HikariDataSources.create(shard.getUrl(), shard.getUsername(), shard.getPassword(),
+                    shard.getDriverClassName(), "event-shard-" + i, shard.getHikari());
+
+            LocalContainerEntityManagerFactoryBean factoryBean = builder
+                    .dataSource(dataSource)
+                    .packages(Event.class, Account.class)
+                    .persistenceUnit("event-shard-" + i)
+                    .properties(Map.of(
+                            AvailableSettings.HBM2DDL_AUTO, properties.getDdlAuto(),
+                            AvailableSettings.PHYSICAL_NAMING_STRATEGY, SpringPhysicalNamingStrategy.class.getName(),
+                            AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName(),
+                            AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beanFactory)))
+                    .build();
+            factoryBean.afterPropertiesSet();
+
+            dataSources.add(dataSource);
+            entityManagerFactories.add(factoryBean.getObject());
+        }
+        return new EventShards(dataSources, entityManagerFactories);
+    }
+}
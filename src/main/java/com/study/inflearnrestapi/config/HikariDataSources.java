@@ -0,0 +1,35 @@
+package com.study.inflearnrestapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+
+import java.util.Map;
+
+/**
+ * Builds the Hikari pools next to {@code spring.datasource} (replicas, shards) with their pool settings bound the way
+ * Boot binds {@code spring.datasource.hikari.*} onto its own pool.
+ */
+final class HikariDataSources {
+
+    private HikariDataSources() {
+    }
+
+    static HikariDataSource create(String url, String username, String password, String driverClassName,
+                                   String poolName, Map<String, String> settings) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .driverClassName(driverClassName)
+                .build();
+        dataSource.setPoolName(poolName);
+        MapConfigurationPropertySource source = new MapConfigurationPropertySource();
+        settings.forEach((name, value) -> source.put("hikari." + name, value));
+        new Binder(source).bind("hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+}
@@ -0,0 +1,174 @@
+package com.study.inflearnrestapi.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Sends read-only transactions to the replicas (round robin over the healthy ones) and everything else to the primary.
+ * A principal that wrote stays on the primary for its reads until {@code readYourWritesMs} has passed. A replica that
+ * fails to hand out a connection is skipped until {@link #checkReplicas()} finds it valid again.
+ * Wrap it in a {@link LazyConnectionDataSourceProxy} so the transaction's read-only flag is set before a connection is chosen.
+ * Closing it closes the pools it routes to.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long readYourWritesNanos;
+    private final Supplier<String> principal;
+    private final LongSupplier nanoClock;
+    private final Map<String, Long> lastWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, long readYourWritesMs, int maxTrackedWriters) {
+        this(primary, replicas, readYourWritesMs, maxTrackedWriters, ReadWriteRoutingDataSource::currentPrincipal, System::nanoTime);
+    }
+
+    ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, long readYourWritesMs, int maxTrackedWriters,
+                               Supplier<String> principal, LongSupplier nanoClock) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).collect(Collectors.toList());
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMs);
+        this.principal = principal;
+        this.nanoClock = nanoClock;
+        this.lastWrites = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxTrackedWriters;
+            }
+        };
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite();
+            }
+            return this.primary.getConnection();
+        }
+        if (!readsOwnWrites()) {
+            for (int attempt = 0; attempt < this.replicas.size(); attempt++) {
+                Replica replica = this.replicas.get(Math.floorMod(this.next.getAndIncrement(), this.replicas.size()));
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.healthy = false;
+                    logger.warn("Replica connection failed, reading from the primary until it recovers", e);
+                }
+            }
+        }
+        return this.primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return this.primary.getConnection(username, password);
+    }
+
+    /**
+     * Marks each replica healthy or not by validating one of its connections.
+     */
+    public void checkReplicas() {
+        for (Replica replica : this.replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                replica.healthy = connection.isValid(1);
+            } catch (SQLException e) {
+                replica.healthy = false;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        Exception failure = null;
+        for (DataSource dataSource : dataSources()) {
+            if (!(dataSource instanceof AutoCloseable)) {
+                continue;
+            }
+            try {
+                ((AutoCloseable) dataSource).close();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** The primary followed by the replicas. */
+    List<DataSource> dataSources() {
+        List<DataSource> dataSources = new ArrayList<>();
+        dataSources.add(this.primary);
+        this.replicas.forEach(replica -> dataSources.add(replica.dataSource));
+        return dataSources;
+    }
+
+    int healthyReplicas() {
+        return (int) this.replicas.stream().filter(r -> r.healthy).count();
+    }
+
+    private void recordWrite() {
+        String writer = this.principal.get();
+        if (writer == null) {
+            return;
+        }
+        long now = this.nanoClock.getAsLong();
+        synchronized (this.lastWrites) {
+            // Re-insert so that the map stays ordered by last write and the eldest entry is the one to drop
+            this.lastWrites.remove(writer);
+            this.lastWrites.put(writer, now);
+        }
+    }
+
+    private boolean readsOwnWrites() {
+        String reader = this.principal.get();
+        if (reader == null) {
+            return false;
+        }
+        Long lastWrite;
+        synchronized (this.lastWrites) {
+            lastWrite = this.lastWrites.get(reader);
+        }
+        return lastWrite != null && this.nanoClock.getAsLong() - lastWrite < this.readYourWritesNanos;
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+
+    private static class Replica {
+
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.study.inflearnrestapi.config;
 
+import com.study.inflearnrestapi.accounts.AccountRole;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -23,6 +24,8 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
             .anonymous()
                 .and()
             .authorizeRequests()
+            .mvcMatchers("/api/admin/**")
+            .hasRole(AccountRole.ADMIN.name())
             .mvcMatchers(HttpMethod.GET, "/api/**")
             .permitAll()
             .anyRequest()
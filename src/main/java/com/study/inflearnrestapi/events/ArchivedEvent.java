@@ -0,0 +1,60 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.accounts.Account;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An event moved out of the {@code event} table by {@link EventArchiver} once it had ended. It keeps its id and
+ * columns, and is only read by id.
+ */
+@Entity
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Builder @NoArgsConstructor @AllArgsConstructor
+public class ArchivedEvent {
+
+    @Id
+    private Integer id;
+    private String name;
+    private String description;
+    private LocalDateTime beginEnrollmentDateTime;
+    private LocalDateTime closeEnrollmentDateTime;
+    private LocalDateTime endEventDateTime;
+    private LocalDateTime beginEventDateTime;
+    private String location;
+    private Double latitude;
+    private Double longitude;
+    private int basePrice;
+    private int maxPrice;
+    private int limitOfEnrollment;
+    private boolean offline;
+    private boolean free;
+    @Enumerated(EnumType.STRING)
+    private EventStatus eventStatus;
+    @ManyToOne
+    private Account manager;
+
+    public Event toEvent() {
+        return Event.builder()
+                .id(this.id)
+                .name(this.name)
+                .description(this.description)
+                .beginEnrollmentDateTime(this.beginEnrollmentDateTime)
+                .closeEnrollmentDateTime(this.closeEnrollmentDateTime)
+                .endEventDateTime(this.endEventDateTime)
+                .beginEventDateTime(this.beginEventDateTime)
+                .location(this.location)
+                .latitude(this.latitude)
+                .longitude(this.longitude)
+                .basePrice(this.basePrice)
+                .maxPrice(this.maxPrice)
+                .limitOfEnrollment(this.limitOfEnrollment)
+                .offline(this.offline)
+                .free(this.free)
+                .eventStatus(this.eventStatus)
+                .manager(this.manager)
+                .build();
+    }
+}
@@ -4,11 +4,15 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.study.inflearnrestapi.accounts.Account;
 import com.study.inflearnrestapi.accounts.AccountSerializer;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(columnList = "endEventDateTime"))
+@DynamicUpdate
+@EntityListeners(EventEntityListener.class)
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder @NoArgsConstructor @AllArgsConstructor
 public class Event {
@@ -22,6 +26,8 @@ public class Event {
     private LocalDateTime endEventDateTime;
     private LocalDateTime beginEventDateTime;
     private String location;
+    private Double latitude;
+    private Double longitude;
     private int basePrice;
     private int maxPrice;
     private int limitOfEnrollment;
@@ -48,4 +54,8 @@ public class Event {
             this.offline = true;
         }
     }
+
+    public boolean hasCoordinates() {
+        return this.latitude != null && this.longitude != null;
+    }
 }
\ No newline at end of file
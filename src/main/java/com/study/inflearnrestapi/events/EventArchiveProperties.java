@@ -0,0 +1,23 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "my-app.events.archive")
+@Component
+public class EventArchiveProperties {
+
+    private boolean enabled = true;
+
+    /** Days after {@code endEventDateTime} before an event is moved to the archive. */
+    private int endedDays = 30;
+
+    /** Events moved per transaction. */
+    private int batchSize = 500;
+
+    /** Batches moved per run, so a large backlog is worked off over several runs. */
+    private int maxBatchesPerRun = 20;
+}
@@ -0,0 +1,54 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves events that ended more than {@code endedDays} ago from the {@code event} table to {@code archived_event} in
+ * bounded batches, so that listings, counts and the in-memory indexes only cover the events still in use.
+ * {@link EventService#findEvent} still finds an archived event by id.
+ */
+@Slf4j
+@Lazy(false)
+@ConditionalOnProperty(prefix = "my-app.events.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Component
+public class EventArchiver {
+
+    @Autowired
+    EventArchiveProperties properties;
+
+    @Autowired
+    EventService eventService;
+
+    @Scheduled(initialDelayString = "${my-app.events.archive.interval-ms:60000}",
+            fixedDelayString = "${my-app.events.archive.interval-ms:60000}")
+    public int archive() {
+        LocalDateTime before = LocalDateTime.now().minusDays(this.properties.getEndedDays());
+        int archived = 0;
+        for (int batch = 0; batch < this.properties.getMaxBatchesPerRun(); batch++) {
+            List<Integer> ids;
+            try {
+                ids = this.eventService.archiveEvents(before, this.properties.getBatchSize());
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Another node archived the same events first", e);
+                break;
+            }
+            archived += ids.size();
+            if (ids.size() < this.properties.getBatchSize()) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} events that ended before {}", archived, before);
+        }
+        return archived;
+    }
+}
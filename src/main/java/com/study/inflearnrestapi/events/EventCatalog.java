@@ -0,0 +1,196 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Local, read-only copy of the published events ({@link EventUpcomingIndex#STATUSES}) that {@link EventService#findEvent}
+ * serves without a database round trip. It is a memory-mapped {@link EventCatalogSnapshot} plus an
+ * {@link EventCatalogDeltaLog} of the changes since, both kept on local disk so that a restarted node starts warm.
+ * Changes are picked up from the published outbox rows, which covers writes made on every node; writes made on this
+ * node are also applied as soon as they commit, so a writer reads its own write. An event that is not in the
+ * catalogue, or that left it, is read from the database as before.
+ */
+@Slf4j
+@ConditionalOnProperty(prefix = "my-app.events.catalog", name = "enabled", havingValue = "true")
+@Component
+public class EventCatalog {
+
+    static final String SNAPSHOT_FILE = "events.snapshot";
+    static final String DELTA_FILE = "events.delta";
+
+    private volatile State state = new State(EventCatalogSnapshot.empty());
+    private EventCatalogDeltaLog deltaLog;
+    private Path directory;
+
+    @Autowired
+    EventCatalogProperties properties;
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    EventChangeRepository eventChangeRepository;
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        this.directory = Paths.get(this.properties.getDirectory());
+        Files.createDirectories(this.directory);
+        Path snapshotFile = this.directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+
+        State state = new State(EventCatalogSnapshot.map(snapshotFile));
+        state.sequence = EventCatalogDeltaLog.replay(this.directory.resolve(DELTA_FILE), state.snapshot.getSequence(),
+                (sequence, id, event) -> state.overlay.put(id, Optional.ofNullable(event)));
+        this.deltaLog = new EventCatalogDeltaLog(this.directory.resolve(DELTA_FILE), false);
+        this.state = state;
+        log.info("Mapped event catalogue of {} events and {} changes up to sequence {}",
+                state.snapshot.size(), state.overlay.size(), state.sequence);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (this.deltaLog != null) {
+            this.deltaLog.close();
+        }
+    }
+
+    public Optional<Event> find(Integer id) {
+        State state = this.state;
+        Optional<Event> changed = state.overlay.get(id);
+        return changed != null ? changed : state.snapshot.find(id);
+    }
+
+    /**
+     * Applies a change made on this node to the overlay right away. It is not written to the delta log; {@link #follow()}
+     * records it under its outbox sequence once the relay has published it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEventChanged(EventChangedEvent changedEvent) {
+        Event event = changedEvent.getEvent();
+        if (changedEvent.getType().isRemoval() || !EventUpcomingIndex.STATUSES.contains(event.getEventStatus())) {
+            this.state.overlay.put(event.getId(), Optional.empty());
+        } else {
+            this.state.overlay.put(event.getId(), Optional.of(EventUpcomingIndex.copyOf(event)));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() throws IOException {
+        if (this.deltaLog == null) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Writes a new snapshot of the published events and starts an empty delta log. The outbox sequence is read
+     * before the events, so changes that race with the load are applied again by {@link #follow()}.
+     */
+    @Scheduled(initialDelayString = "${my-app.events.catalog.snapshot-interval-ms:600000}",
+            fixedDelayString = "${my-app.events.catalog.snapshot-interval-ms:600000}")
+    public synchronized void snapshot() throws IOException {
+        Long maxSequence = this.eventChangeRepository.findMaxSequence();
+        long sequence = maxSequence == null ? 0 : maxSequence;
+        if (this.deltaLog != null && this.state.sequence == sequence && this.state.overlay.isEmpty()) {
+            return;
+        }
+
+        List<Event> events = this.eventService.findEventsByStatus(EventUpcomingIndex.STATUSES);
+        Path snapshotFile = this.directory.resolve(SNAPSHOT_FILE);
+        EventCatalogSnapshot.write(snapshotFile, sequence, events);
+
+        State state = new State(EventCatalogSnapshot.map(snapshotFile));
+        state.sequence = sequence;
+        close();
+        this.deltaLog = new EventCatalogDeltaLog(this.directory.resolve(DELTA_FILE), true);
+        this.state = state;
+        log.info("Wrote event catalogue of {} events at sequence {}", events.size(), sequence);
+    }
+
+    /**
+     * Re-reads the events named by the outbox changes published since the last applied sequence and records them in
+     * the delta log, or their removal when they are no longer published. Falls back to a new snapshot when the
+     * outbox has already been cleaned up past that sequence.
+     */
+    @Scheduled(initialDelayString = "${my-app.events.catalog.follow-interval-ms:1000}",
+            fixedDelayString = "${my-app.events.catalog.follow-interval-ms:1000}")
+    public synchronized void follow() throws IOException {
+        if (this.deltaLog == null) {
+            return;
+        }
+
+        List<EventChange> changes;
+        do {
+            State state = this.state;
+            changes = this.eventChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(
+                    state.sequence, PageRequest.of(0, this.properties.getBatchSize()));
+            if (changes.isEmpty()) {
+                return;
+            }
+            if (changes.get(0).getSequence() > state.sequence + 1) {
+                log.warn("Outbox no longer holds the changes after sequence {}, rewriting the event catalogue", state.sequence);
+                snapshot();
+                return;
+            }
+
+            Set<Integer> ids = changes.stream().map(EventChange::getEventId).collect(Collectors.toCollection(LinkedHashSet::new));
+            Map<Integer, Event> events = this.eventService.findEventsById(ids).stream()
+                    .collect(Collectors.toMap(Event::getId, Function.identity()));
+            long sequence = changes.get(changes.size() - 1).getSequence();
+            for (Integer id : ids) {
+                Event event = events.get(id);
+                if (event != null && EventUpcomingIndex.STATUSES.contains(event.getEventStatus())) {
+                    this.deltaLog.put(sequence, event);
+                    state.overlay.put(id, Optional.of(EventUpcomingIndex.copyOf(event)));
+                } else {
+                    this.deltaLog.remove(sequence, id);
+                    state.overlay.put(id, Optional.empty());
+                }
+            }
+            this.deltaLog.flush();
+            state.sequence = sequence;
+        } while (changes.size() == this.properties.getBatchSize());
+    }
+
+    int size() {
+        return this.state.snapshot.size();
+    }
+
+    long getSequence() {
+        return this.state.sequence;
+    }
+
+    private static class State {
+        private final EventCatalogSnapshot snapshot;
+        private final Map<Integer, Optional<Event>> overlay = new ConcurrentHashMap<>();
+        private volatile long sequence;
+
+        State(EventCatalogSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+}
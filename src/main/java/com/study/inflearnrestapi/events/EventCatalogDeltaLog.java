@@ -0,0 +1,161 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.accounts.Account;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.study.inflearnrestapi.events.EventCatalogSnapshot.dateTime;
+import static com.study.inflearnrestapi.events.EventCatalogSnapshot.micros;
+
+/**
+ * Append-only log of the catalogue changes made since the snapshot was written. Every entry carries the outbox
+ * sequence it came from, and either the whole event or only its id when the event left the catalogue. The log is
+ * emptied whenever a new snapshot is written, so it is always small enough to read in one go.
+ */
+class EventCatalogDeltaLog implements Closeable {
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final EventStatus[] STATUSES = EventStatus.values();
+
+    interface Entries {
+        /**
+         * @param event the event, or {@code null} when it left the catalogue
+         */
+        void apply(long sequence, int id, Event event);
+    }
+
+    private final DataOutputStream out;
+
+    EventCatalogDeltaLog(Path path, boolean truncate) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, truncate ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND)));
+    }
+
+    void put(long sequence, Event event) throws IOException {
+        this.out.writeByte(PUT);
+        this.out.writeLong(sequence);
+        this.out.writeInt(event.getId());
+        writeString(event.getName());
+        writeString(event.getDescription());
+        writeString(event.getLocation());
+        this.out.writeLong(micros(event.getBeginEnrollmentDateTime()));
+        this.out.writeLong(micros(event.getCloseEnrollmentDateTime()));
+        this.out.writeLong(micros(event.getBeginEventDateTime()));
+        this.out.writeLong(micros(event.getEndEventDateTime()));
+        this.out.writeDouble(event.getLatitude() == null ? Double.NaN : event.getLatitude());
+        this.out.writeDouble(event.getLongitude() == null ? Double.NaN : event.getLongitude());
+        this.out.writeInt(event.getBasePrice());
+        this.out.writeInt(event.getMaxPrice());
+        this.out.writeInt(event.getLimitOfEnrollment());
+        this.out.writeInt(event.getManager() == null ? -1 : event.getManager().getId());
+        this.out.writeByte(event.getEventStatus() == null ? -1 : event.getEventStatus().ordinal());
+        this.out.writeBoolean(event.isOffline());
+        this.out.writeBoolean(event.isFree());
+    }
+
+    void remove(long sequence, int id) throws IOException {
+        this.out.writeByte(REMOVE);
+        this.out.writeLong(sequence);
+        this.out.writeInt(id);
+    }
+
+    void flush() throws IOException {
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+
+    /**
+     * Applies the entries after {@code afterSequence} and cuts a torn last entry off the file, so that later appends
+     * follow a complete entry.
+     *
+     * @return the sequence of the last complete entry, or {@code afterSequence} if there is none
+     */
+    static long replay(Path path, long afterSequence, Entries entries) throws IOException {
+        long lastSequence = afterSequence;
+        if (!Files.exists(path)) {
+            return lastSequence;
+        }
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+        int complete = 0;
+        try {
+            while (in.hasRemaining()) {
+                byte type = in.get();
+                long sequence = in.getLong();
+                int id = in.getInt();
+                Event event = type == PUT ? readEvent(in, id) : null;
+                complete = in.position();
+                if (sequence > afterSequence) {
+                    entries.apply(sequence, id, event);
+                    lastSequence = Math.max(lastSequence, sequence);
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(complete);
+            }
+        }
+        return lastSequence;
+    }
+
+    private static Event readEvent(ByteBuffer in, int id) {
+        Event event = Event.builder()
+                .id(id)
+                .name(readString(in))
+                .description(readString(in))
+                .location(readString(in))
+                .beginEnrollmentDateTime(dateTime(in.getLong()))
+                .closeEnrollmentDateTime(dateTime(in.getLong()))
+                .beginEventDateTime(dateTime(in.getLong()))
+                .endEventDateTime(dateTime(in.getLong()))
+                .build();
+        double latitude = in.getDouble();
+        double longitude = in.getDouble();
+        event.setLatitude(Double.isNaN(latitude) ? null : latitude);
+        event.setLongitude(Double.isNaN(longitude) ? null : longitude);
+        event.setBasePrice(in.getInt());
+        event.setMaxPrice(in.getInt());
+        event.setLimitOfEnrollment(in.getInt());
+        int managerId = in.getInt();
+        event.setManager(managerId < 0 ? null : Account.builder().id(managerId).build());
+        byte status = in.get();
+        event.setEventStatus(status < 0 ? null : STATUSES[status]);
+        event.setOffline(in.get() != 0);
+        event.setFree(in.get() != 0);
+        return event;
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            this.out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.out.writeInt(bytes.length);
+        this.out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
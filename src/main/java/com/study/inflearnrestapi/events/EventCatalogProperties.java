@@ -0,0 +1,25 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "my-app.events.catalog")
+@Component
+public class EventCatalogProperties {
+
+    private boolean enabled = false;
+
+    /** Local directory holding the snapshot and delta log of this node. */
+    private String directory = "event-catalog";
+
+    /** How often the snapshot is rewritten from the database and the delta log emptied. */
+    private long snapshotIntervalMs = 600_000;
+
+    /** How often published outbox changes are applied to the delta log; bounds how stale a catalogue read can be. */
+    private long followIntervalMs = 1_000;
+
+    private int batchSize = 500;
+}
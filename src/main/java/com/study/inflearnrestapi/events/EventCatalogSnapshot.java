@@ -0,0 +1,243 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.accounts.Account;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-only catalogue file mapped with {@link MappedByteBuffer}. The layout is a header, one fixed-width record per
+ * event sorted by id, and a table of the distinct strings the records point to:
+ *
+ * <pre>
+ * header   magic, version, sequence (long), record count, string count, records offset, strings offset
+ * record   id, name, description, location (string indexes, -1 for null), four date times (epoch micros in UTC),
+ *          latitude, longitude (NaN for null), basePrice, maxPrice, limitOfEnrollment, manager id, status, flags
+ * strings  string count + 1 offsets into the UTF-8 bytes that follow
+ * </pre>
+ *
+ * Lookups binary search the records in place, so the catalogue lives in the page cache rather than on the heap and
+ * only the returned {@link Event} is allocated. Offsets are ints, which limits a file to 2 GB.
+ */
+class EventCatalogSnapshot {
+
+    static final int MAGIC = 0x45564331;
+    static final int VERSION = 1;
+    static final long NULL_TIME = Long.MIN_VALUE;
+    private static final int HEADER_SIZE = 32;
+    /** 82 bytes of fields padded so that the longs of every record stay 8-byte aligned. */
+    static final int RECORD_SIZE = 88;
+    private static final int NAME = 4, DESCRIPTION = 8, LOCATION = 12, BEGIN_ENROLLMENT = 16, CLOSE_ENROLLMENT = 24,
+            BEGIN_EVENT = 32, END_EVENT = 40, LATITUDE = 48, LONGITUDE = 56, BASE_PRICE = 64, MAX_PRICE = 68,
+            LIMIT_OF_ENROLLMENT = 72, MANAGER = 76, STATUS = 80, FLAGS = 81;
+    private static final int OFFLINE = 1, FREE = 2;
+    private static final EventStatus[] STATUSES = EventStatus.values();
+
+    private final ByteBuffer buffer;
+    private final long sequence;
+    private final int size;
+    private final int stringsOffset;
+    private final int bytesOffset;
+
+    private EventCatalogSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not an event catalogue snapshot of version " + VERSION);
+        }
+        this.sequence = buffer.getLong(8);
+        this.size = buffer.getInt(16);
+        int stringCount = buffer.getInt(20);
+        this.stringsOffset = buffer.getInt(28);
+        this.bytesOffset = this.stringsOffset + (stringCount + 1) * Integer.BYTES;
+    }
+
+    static EventCatalogSnapshot empty() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + Integer.BYTES);
+        buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(24, HEADER_SIZE).putInt(28, HEADER_SIZE);
+        return new EventCatalogSnapshot(buffer);
+    }
+
+    static EventCatalogSnapshot map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new EventCatalogSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes {@code events} next to {@code path} and moves the file into place, so a reader never maps a partial file.
+     */
+    static void write(Path path, long sequence, List<Event> events) throws IOException {
+        List<Event> sorted = new ArrayList<>(events);
+        sorted.sort(Comparator.comparing(Event::getId));
+
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        List<byte[]> stringBytes = new ArrayList<>();
+        int[][] stringIndexes = new int[sorted.size()][];
+        long bytesLength = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            Event event = sorted.get(i);
+            stringIndexes[i] = new int[3];
+            String[] values = {event.getName(), event.getDescription(), event.getLocation()};
+            for (int j = 0; j < values.length; j++) {
+                if (values[j] == null) {
+                    stringIndexes[i][j] = -1;
+                    continue;
+                }
+                Integer index = strings.get(values[j]);
+                if (index == null) {
+                    index = strings.size();
+                    strings.put(values[j], index);
+                    byte[] bytes = values[j].getBytes(StandardCharsets.UTF_8);
+                    stringBytes.add(bytes);
+                    bytesLength += bytes.length;
+                }
+                stringIndexes[i][j] = index;
+            }
+        }
+
+        long recordsOffset = HEADER_SIZE;
+        long stringsOffset = recordsOffset + (long) sorted.size() * RECORD_SIZE;
+        long length = stringsOffset + (stringBytes.size() + 1L) * Integer.BYTES + bytesLength;
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Event catalogue snapshot of " + length + " bytes exceeds 2 GB");
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(sequence).putInt(sorted.size()).putInt(stringBytes.size())
+                    .putInt((int) recordsOffset).putInt((int) stringsOffset);
+
+            for (int i = 0; i < sorted.size(); i++) {
+                Event event = sorted.get(i);
+                int record = (int) recordsOffset + i * RECORD_SIZE;
+                buffer.putInt(record, event.getId())
+                        .putInt(record + NAME, stringIndexes[i][0])
+                        .putInt(record + DESCRIPTION, stringIndexes[i][1])
+                        .putInt(record + LOCATION, stringIndexes[i][2])
+                        .putLong(record + BEGIN_ENROLLMENT, micros(event.getBeginEnrollmentDateTime()))
+                        .putLong(record + CLOSE_ENROLLMENT, micros(event.getCloseEnrollmentDateTime()))
+                        .putLong(record + BEGIN_EVENT, micros(event.getBeginEventDateTime()))
+                        .putLong(record + END_EVENT, micros(event.getEndEventDateTime()))
+                        .putDouble(record + LATITUDE, event.getLatitude() == null ? Double.NaN : event.getLatitude())
+                        .putDouble(record + LONGITUDE, event.getLongitude() == null ? Double.NaN : event.getLongitude())
+                        .putInt(record + BASE_PRICE, event.getBasePrice())
+                        .putInt(record + MAX_PRICE, event.getMaxPrice())
+                        .putInt(record + LIMIT_OF_ENROLLMENT, event.getLimitOfEnrollment())
+                        .putInt(record + MANAGER, event.getManager() == null ? -1 : event.getManager().getId())
+                        .put(record + STATUS, (byte) (event.getEventStatus() == null ? -1 : event.getEventStatus().ordinal()))
+                        .put(record + FLAGS, (byte) ((event.isOffline() ? OFFLINE : 0) | (event.isFree() ? FREE : 0)));
+            }
+
+            buffer.position((int) stringsOffset);
+            int offset = 0;
+            for (byte[] bytes : stringBytes) {
+                buffer.putInt(offset);
+                offset += bytes.length;
+            }
+            buffer.putInt(offset);
+            for (byte[] bytes : stringBytes) {
+                buffer.put(bytes);
+            }
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Optional<Event> find(int id) {
+        int low = 0;
+        int high = this.size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int record = HEADER_SIZE + middle * RECORD_SIZE;
+            int recordId = this.buffer.getInt(record);
+            if (recordId < id) {
+                low = middle + 1;
+            } else if (recordId > id) {
+                high = middle - 1;
+            } else {
+                return Optional.of(read(record));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Event read(int record) {
+        ByteBuffer buffer = this.buffer;
+        double latitude = buffer.getDouble(record + LATITUDE);
+        double longitude = buffer.getDouble(record + LONGITUDE);
+        int managerId = buffer.getInt(record + MANAGER);
+        byte status = buffer.get(record + STATUS);
+        byte flags = buffer.get(record + FLAGS);
+        return Event.builder()
+                .id(buffer.getInt(record))
+                .name(string(buffer.getInt(record + NAME)))
+                .description(string(buffer.getInt(record + DESCRIPTION)))
+                .location(string(buffer.getInt(record + LOCATION)))
+                .beginEnrollmentDateTime(dateTime(buffer.getLong(record + BEGIN_ENROLLMENT)))
+                .closeEnrollmentDateTime(dateTime(buffer.getLong(record + CLOSE_ENROLLMENT)))
+                .beginEventDateTime(dateTime(buffer.getLong(record + BEGIN_EVENT)))
+                .endEventDateTime(dateTime(buffer.getLong(record + END_EVENT)))
+                .latitude(Double.isNaN(latitude) ? null : latitude)
+                .longitude(Double.isNaN(longitude) ? null : longitude)
+                .basePrice(buffer.getInt(record + BASE_PRICE))
+                .maxPrice(buffer.getInt(record + MAX_PRICE))
+                .limitOfEnrollment(buffer.getInt(record + LIMIT_OF_ENROLLMENT))
+                .manager(managerId < 0 ? null : Account.builder().id(managerId).build())
+                .eventStatus(status < 0 ? null : STATUSES[status])
+                .offline((flags & OFFLINE) != 0)
+                .free((flags & FREE) != 0)
+                .build();
+    }
+
+    private String string(int index) {
+        if (index < 0) {
+            return null;
+        }
+        int start = this.buffer.getInt(this.stringsOffset + index * Integer.BYTES);
+        int end = this.buffer.getInt(this.stringsOffset + (index + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        ByteBuffer view = this.buffer.duplicate();
+        view.position(this.bytesOffset + start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static long micros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NULL_TIME;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime dateTime(long micros) {
+        if (micros == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
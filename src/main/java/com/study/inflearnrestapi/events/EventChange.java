@@ -0,0 +1,34 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = @Index(columnList = "change_sequence", unique = true))
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Builder @NoArgsConstructor @AllArgsConstructor
+public class EventChange {
+
+    @Id @GeneratedValue
+    private Long id;
+    @Column(name = "change_sequence")
+    private Long sequence;
+    private Integer eventId;
+    @Enumerated(EnumType.STRING)
+    private EventChangedEvent.Type type;
+    private LocalDateTime occurredAt;
+
+    public static EventChange of(Event event, EventChangedEvent.Type type) {
+        return of(event.getId(), type);
+    }
+
+    public static EventChange of(Integer eventId, EventChangedEvent.Type type) {
+        return EventChange.builder()
+                .eventId(eventId)
+                .type(type)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.common.ApiLinks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+
+@RequestMapping(value = "/api/events/changes", produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+@Controller
+public class EventChangeController {
+
+    private static final int MAX_SIZE = 1000;
+
+    @Autowired
+    EventChangeRepository eventChangeRepository;
+
+    @Autowired
+    EventChangeRelay eventChangeRelay;
+
+    @Autowired
+    EventOutboxProperties properties;
+
+    @Autowired
+    ApiLinks apiLinks;
+
+    @GetMapping
+    public DeferredResult<ResponseEntity<?>> queryEventChanges(@RequestParam(defaultValue = "0") long since,
+                                                               @RequestParam(defaultValue = "100") int size,
+                                                               @RequestParam(defaultValue = "0") long waitMs) {
+
+        int limit = Math.min(Math.max(size, 1), MAX_SIZE);
+        long timeout = Math.min(Math.max(waitMs, 0), this.properties.getMaxWaitMs());
+        String changesHref = this.apiLinks.events("changes").getHref() + "/changes?size=" + limit + "&since=";
+
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(timeout == 0 ? null : timeout,
+                () -> changes(since, limit, changesHref));
+        if (timeout == 0 || this.eventChangeRelay.getLastSequence() > since
+                || !this.eventChangeRelay.await(since, limit, result, changes -> changes(since, changes, changesHref))) {
+            result.setResult(changes(since, limit, changesHref));
+        }
+        return result;
+    }
+
+    private ResponseEntity<?> changes(long since, int limit, String changesHref) {
+        return changes(since, this.eventChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(
+                since, PageRequest.of(0, limit)), changesHref);
+    }
+
+    private ResponseEntity<?> changes(long since, List<EventChange> changes, String changesHref) {
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSequence();
+
+        var changeResources = CollectionModel.of(changes);
+        changeResources.add(Link.of(changesHref + since));
+        changeResources.add(Link.of(changesHref + next).withRel("next"));
+        changeResources.add(Link.of("/docs/index.html#resources-events-changes").withRel("profile"));
+        return ResponseEntity.ok(changeResources);
+    }
+}
@@ -0,0 +1,238 @@
+package com.study.inflearnrestapi.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Publishes outbox rows in batches by giving them a gap-free publish sequence, and wakes up the
+ * {@code GET /api/events/changes} long-polls that are waiting for a sequence past theirs. The sequence is allocated
+ * from the locked {@link EventChangeSequence} row, so relays on several nodes never hand out the same number, and
+ * each relay also picks up what the others published. With {@link EventShards} the rows written on each shard are
+ * moved to the main datasource first.
+ */
+@Lazy(false)
+@Component
+public class EventChangeRelay {
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+    private final AtomicBoolean wakeUpScheduled = new AtomicBoolean();
+    private ExecutorService wakeUps;
+    private volatile long lastSequence;
+    private volatile boolean lastSequenceLoaded;
+    private boolean sequenceCreated;
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    EventChangeRepository eventChangeRepository;
+
+    @Autowired
+    EventChangeSequenceRepository eventChangeSequenceRepository;
+
+    @Autowired
+    EventOutboxProperties properties;
+
+    @Autowired(required = false)
+    EventShards eventShards;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    public void init() {
+        this.transactionTemplate = new TransactionTemplate(this.transactionManager);
+        this.wakeUps = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "event-change-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.wakeUps.shutdownNow();
+    }
+
+    public long getLastSequence() {
+        if (!this.lastSequenceLoaded) {
+            synchronized (this) {
+                loadLastSequence();
+            }
+        }
+        return lastSequence;
+    }
+
+    /**
+     * Reads the last published sequence on first use rather than at startup, so the context starts without a database round trip.
+     */
+    private void loadLastSequence() {
+        if (!this.lastSequenceLoaded) {
+            Long maxSequence = this.eventChangeRepository.findMaxSequence();
+            this.lastSequence = maxSequence == null ? 0 : maxSequence;
+            this.lastSequenceLoaded = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${my-app.events.outbox.relay-interval-ms:200}")
+    public synchronized void relay() {
+        loadLastSequence();
+        createSequence();
+        if (this.eventShards != null) {
+            this.eventShards.moveChanges(this.properties.getBatchSize(), changes ->
+                    this.transactionTemplate.executeWithoutResult(tx -> this.eventChangeRepository.saveAll(changes)));
+        }
+        Batch batch;
+        do {
+            batch = this.transactionTemplate.execute(tx -> {
+                EventChangeSequence sequence = this.eventChangeSequenceRepository.findByIdForUpdate(EventChangeSequence.ID)
+                        .orElseThrow(() -> new IllegalStateException("The event change sequence row is missing"));
+                List<EventChange> changes = this.eventChangeRepository.findBySequenceIsNullOrderByIdAsc(
+                        PageRequest.of(0, this.properties.getBatchSize()));
+                long next = sequence.getLastSequence();
+                for (EventChange change : changes) {
+                    change.setSequence(++next);
+                }
+                this.eventChangeRepository.saveAll(changes);
+                sequence.setLastSequence(next);
+                return new Batch(changes.size(), next);
+            });
+            if (batch.lastSequence > this.lastSequence) {
+                this.lastSequence = batch.lastSequence;
+                wakeUp();
+            }
+        } while (batch.published == this.properties.getBatchSize());
+    }
+
+    private void createSequence() {
+        if (this.sequenceCreated) {
+            return;
+        }
+        try {
+            this.transactionTemplate.executeWithoutResult(tx -> {
+                if (!this.eventChangeSequenceRepository.existsById(EventChangeSequence.ID)) {
+                    Long maxSequence = this.eventChangeRepository.findMaxSequence();
+                    this.eventChangeSequenceRepository.saveAndFlush(
+                            new EventChangeSequence(EventChangeSequence.ID, maxSequence == null ? 0 : maxSequence));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created by the relay of another node at the same time
+        }
+        this.sequenceCreated = true;
+    }
+
+    @Scheduled(cron = "${my-app.events.outbox.cleanup-cron:0 0 4 * * *}")
+    public void cleanUp() {
+        this.transactionTemplate.executeWithoutResult(tx -> this.eventChangeRepository.deletePublishedBefore(
+                LocalDateTime.now().minusDays(this.properties.getRetentionDays())));
+    }
+
+    /**
+     * Completes {@code result} with {@code response} applied to the first {@code limit} changes past {@code since} once
+     * such a change has been published, or with {@code timeoutResult} when the deferred result times out.
+     */
+    public boolean await(long since, int limit, DeferredResult<ResponseEntity<?>> result,
+                         Function<List<EventChange>, ResponseEntity<?>> response) {
+        if (this.waiterCount.incrementAndGet() > this.properties.getMaxWaiters()) {
+            this.waiterCount.decrementAndGet();
+            return false;
+        }
+
+        Waiter waiter = new Waiter(since, limit, result, response);
+        result.onCompletion(() -> {
+            if (this.waiters.remove(waiter)) {
+                this.waiterCount.decrementAndGet();
+            }
+        });
+        this.waiters.add(waiter);
+        if (getLastSequence() > since) {
+            scheduleWakeUp();
+        }
+        return true;
+    }
+
+    /**
+     * Wakes up the waiters on the relay's own thread, so a poll that is already behind does not query the changes on
+     * the request thread; polls arriving while a wake-up is pending share it.
+     */
+    private void scheduleWakeUp() {
+        if (this.wakeUpScheduled.compareAndSet(false, true)) {
+            this.wakeUps.execute(() -> {
+                this.wakeUpScheduled.set(false);
+                wakeUp();
+            });
+        }
+    }
+
+    /**
+     * Completes the waiters behind the last sequence with one query per distinct {@code since}, since most of them
+     * follow the tail from the same place. Each waiter is claimed by removing it from the queue, so a concurrent
+     * wake-up or completion never counts it twice.
+     */
+    private void wakeUp() {
+        long lastSequence = this.lastSequence;
+        Map<Long, List<Waiter>> ready = new HashMap<>();
+        for (Waiter waiter : this.waiters) {
+            if (waiter.since < lastSequence && this.waiters.remove(waiter)) {
+                this.waiterCount.decrementAndGet();
+                ready.computeIfAbsent(waiter.since, since -> new ArrayList<>()).add(waiter);
+            }
+        }
+        ready.forEach((since, group) -> {
+            int limit = group.stream().mapToInt(waiter -> waiter.limit).max().orElse(1);
+            List<EventChange> changes = this.eventChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(
+                    since, PageRequest.of(0, limit));
+            for (Waiter waiter : group) {
+                waiter.result.setResult(waiter.response.apply(changes.subList(0, Math.min(waiter.limit, changes.size()))));
+            }
+        });
+    }
+
+    private static class Batch {
+        private final int published;
+        private final long lastSequence;
+
+        Batch(int published, long lastSequence) {
+            this.published = published;
+            this.lastSequence = lastSequence;
+        }
+    }
+
+    private static class Waiter {
+        private final long since;
+        private final int limit;
+        private final DeferredResult<ResponseEntity<?>> result;
+        private final Function<List<EventChange>, ResponseEntity<?>> response;
+
+        Waiter(long since, int limit, DeferredResult<ResponseEntity<?>> result,
+               Function<List<EventChange>, ResponseEntity<?>> response) {
+            this.since = since;
+            this.limit = limit;
+            this.result = result;
+            this.response = response;
+        }
+    }
+}
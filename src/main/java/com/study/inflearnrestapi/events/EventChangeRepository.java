@@ -0,0 +1,29 @@
+package com.study.inflearnrestapi.events;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EventChangeRepository extends JpaRepository<EventChange, Long> {
+
+    List<EventChange> findBySequenceIsNullOrderByIdAsc(Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from EventChange c where c.sequence is null order by c.id")
+    List<EventChange> findUnpublishedForUpdate(Pageable pageable);
+
+    List<EventChange> findBySequenceGreaterThanOrderBySequenceAsc(Long sequence, Pageable pageable);
+
+    @Query("select max(c.sequence) from EventChange c")
+    Long findMaxSequence();
+
+    @Modifying
+    @Query("delete from EventChange c where c.sequence is not null and c.occurredAt < :before")
+    int deletePublishedBefore(LocalDateTime before);
+}
@@ -0,0 +1,22 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * The last publish sequence handed out for the outbox. {@link EventChangeRelay} locks this single row while it
+ * publishes, so relays on different nodes take turns and the sequence stays gap-free in commit order.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class EventChangeSequence {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+    private Long lastSequence;
+}
@@ -0,0 +1,15 @@
+package com.study.inflearnrestapi.events;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+public interface EventChangeSequenceRepository extends JpaRepository<EventChangeSequence, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from EventChangeSequence s where s.id = :id")
+    Optional<EventChangeSequence> findByIdForUpdate(Integer id);
+}
@@ -0,0 +1,20 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter @AllArgsConstructor
+public class EventChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, ARCHIVED;
+
+        /** The event left the {@code event} table, deleted or moved to the archive. */
+        public boolean isRemoval() {
+            return this == DELETED || this == ARCHIVED;
+        }
+    }
+
+    private final Event event;
+    private final Type type;
+}
@@ -1,50 +1,76 @@
 package com.study.inflearnrestapi.events;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.study.inflearnrestapi.accounts.Account;
 import com.study.inflearnrestapi.accounts.CurrentUser;
+import com.study.inflearnrestapi.common.ApiLinks;
 import com.study.inflearnrestapi.common.ErrorsResource;
+import com.study.inflearnrestapi.common.JsonMergePatch;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.stereotype.Controller;
+import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.*;
 
-import javax.validation.Valid;
 import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
-@RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_VALUE)
+@RequestMapping(value = "/api/events", produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
 @Controller
 public class EventController {
 
-    private final EventRepository eventRepository;
+    private static final int MAX_NEARBY_SIZE = 100;
+    private static final int MAX_UPCOMING_SIZE = 100;
+
     private final EventValidator eventValidator;
     private final ModelMapper modelMapper;
+    private final EventGeoIndex eventGeoIndex;
+    private final EventFacets eventFacets;
+    private final EventUpcomingIndex eventUpcomingIndex;
+    private final ApiLinks apiLinks;
+    private final EventUpdateQueue eventUpdateQueue;
+    private final EventService eventService;
+    private final ObjectMapper objectMapper;
 
-    public EventController(EventRepository eventRepository, EventValidator eventValidator, ModelMapper modelMapper) {
-        this.eventRepository = eventRepository;
+    public EventController(EventValidator eventValidator, ModelMapper modelMapper,
+                           EventGeoIndex eventGeoIndex, EventFacets eventFacets, EventUpcomingIndex eventUpcomingIndex,
+                           ApiLinks apiLinks, EventUpdateQueue eventUpdateQueue, EventService eventService,
+                           ObjectMapper objectMapper) {
         this.eventValidator = eventValidator;
         this.modelMapper = modelMapper;
+        this.eventGeoIndex = eventGeoIndex;
+        this.eventFacets = eventFacets;
+        this.eventUpcomingIndex = eventUpcomingIndex;
+        this.apiLinks = apiLinks;
+        this.eventUpdateQueue = eventUpdateQueue;
+        this.eventService = eventService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    public ResponseEntity createEvent(@RequestBody @Valid EventDto eventDto,
+    public ResponseEntity createEvent(@RequestBody EventDto eventDto,
                                       Errors errors,
                                       @CurrentUser Account currentUser) {
 
-
-        if (errors.hasErrors()) {
-            return badRequest(errors);
-        }
-
         eventValidator.validate(eventDto, errors);
         if (errors.hasErrors()) {
             return badRequest(errors);
@@ -53,13 +79,12 @@ public class EventController {
         Event event = modelMapper.map(eventDto, Event.class);
         event.update();
         event.setManager(currentUser);
-        Event newEvent = this.eventRepository.save(event);
+        Event newEvent = this.eventService.createEvent(event);
 
-        var selfLinkBuilder = linkTo(EventController.class).slash(newEvent.getId());
-        URI createdUri = selfLinkBuilder.toUri();
-        EventResource eventResource = new EventResource(event);
-        eventResource.add(linkTo(EventController.class).withRel("query-events"));
-        eventResource.add(selfLinkBuilder.withRel("update-event"));
+        URI createdUri = this.apiLinks.eventUri(newEvent.getId());
+        EventResource eventResource = toResource(event);
+        eventResource.add(this.apiLinks.events("query-events"));
+        eventResource.add(this.apiLinks.event(newEvent.getId(), "update-event"));
         eventResource.add(Link.of("/docs/index.html#resources-events-create").withRel("profile"));
 
         return ResponseEntity.created(createdUri).body(eventResource);
@@ -70,31 +95,83 @@ public class EventController {
                                        PagedResourcesAssembler<Event> assembler,
                                        @CurrentUser Account currentUser) {
 
-        Page<Event> page = this.eventRepository.findAll(pageable);
+        if (!this.eventService.canSort(pageable.getSort())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Page<Event> page = this.eventService.findEvents(pageable);
 
-        var pagedResources = assembler.toModel(page, e -> new EventResource(e));
+        var pagedResources = assembler.toModel(page, this::toResource);
         pagedResources.add(Link.of("/docs/index.html#resources-events-list").withRel("profile"));
         if (currentUser != null) {
-            pagedResources.add(linkTo(EventController.class).withRel("create-event"));
+            pagedResources.add(this.apiLinks.events("create-event"));
         }
 
-        return ResponseEntity.ok(pagedResources);
+        return ResponseEntity.ok(new EventPagedModel<>(pagedResources, this.eventFacets.snapshot()));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity nearbyEvents(@RequestParam double lat,
+                                       @RequestParam double lon,
+                                       @RequestParam(required = false) Double radiusKm,
+                                       @RequestParam(defaultValue = "10") int size) {
+
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180 || size < 1 || size > MAX_NEARBY_SIZE || (radiusKm != null && radiusKm < 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<EventGeoIndex.Hit> hits = radiusKm == null
+                ? this.eventGeoIndex.nearest(lat, lon, size)
+                : this.eventGeoIndex.withinRadius(lat, lon, radiusKm, size);
+
+        Map<Integer, Event> events = this.eventService.findEventsById(hits.stream().map(EventGeoIndex.Hit::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+        List<EventResource> eventResources = hits.stream()
+                .map(h -> events.get(h.getId()))
+                .filter(Objects::nonNull)
+                .map(this::toResource)
+                .collect(Collectors.toList());
+
+        var nearbyResources = CollectionModel.of(eventResources);
+        nearbyResources.add(this.apiLinks.eventsNearby(lat, lon, radiusKm, size));
+        nearbyResources.add(Link.of("/docs/index.html#resources-events-nearby").withRel("profile"));
+
+        return ResponseEntity.ok(nearbyResources);
+    }
+
+    @GetMapping("/upcoming")
+    public ResponseEntity upcomingEvents(@RequestParam(defaultValue = "10") int size) {
+
+        if (size < 1 || size > MAX_UPCOMING_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<EventResource> eventResources = this.eventUpcomingIndex.upcoming(size).stream()
+                .map(this::toResource)
+                .collect(Collectors.toList());
+
+        var upcomingResources = CollectionModel.of(eventResources);
+        upcomingResources.add(this.apiLinks.eventsUpcoming(size));
+        upcomingResources.add(Link.of("/docs/index.html#resources-events-upcoming").withRel("profile"));
+
+        return ResponseEntity.ok(upcomingResources);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity getEvent(@PathVariable Integer id,
                                    @CurrentUser Account currentUser) {
 
-        Optional<Event> optionalEvent = this.eventRepository.findById(id);
+        Optional<Event> optionalEvent = this.eventService.findEvent(id);
         if (optionalEvent.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         Event event = optionalEvent.get();
-        EventResource eventResource = new EventResource(event);
+        EventResource eventResource = toResource(event);
         eventResource.add(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
         if (event.getManager().equals(currentUser)) {
-            eventResource.add(linkTo(EventController.class).slash(event.getId()).withRel("update-event"));
+            eventResource.add(this.apiLinks.event(event.getId(), "update-event"));
         }
 
         return ResponseEntity.ok(eventResource);
@@ -102,19 +179,16 @@ public class EventController {
 
     @PutMapping("/{id}")
     public ResponseEntity updateEvent(@PathVariable Integer id,
-                                      @RequestBody @Valid EventDto eventDto,
+                                      @RequestBody EventDto eventDto,
                                       Errors errors,
+                                      @RequestHeader(value = "Prefer", required = false) String prefer,
                                       @CurrentUser Account currentUser) {
 
-        Optional<Event> optionalEvent = this.eventRepository.findById(id);
+        Optional<Event> optionalEvent = this.eventService.findEventForUpdate(id);
         if (optionalEvent.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        if (errors.hasErrors()) {
-            return badRequest(errors);
-        }
-
         this.eventValidator.validate(eventDto, errors);
         if (errors.hasErrors()) {
             return badRequest(errors);
@@ -125,16 +199,111 @@ public class EventController {
             return new ResponseEntity(HttpStatus.UNAUTHORIZED);
         }
 
+        if (prefer != null && prefer.contains("respond-async")) {
+            return acceptUpdate(id, eventDto);
+        }
+
         this.modelMapper.map(eventDto, existingEvent);
-        Event savedEvent = this.eventRepository.save(existingEvent);
+        Event savedEvent = this.eventService.updateEvent(existingEvent);
 
-        EventResource eventResource = new EventResource(savedEvent);
+        EventResource eventResource = toResource(savedEvent);
         eventResource.add(Link.of("/docs/index.html#resources-events-update").withRel("profile"));
 
         return ResponseEntity.ok(eventResource);
     }
 
+    /**
+     * Applies a JSON Merge Patch to the event and validates the result like a full update. Only the columns that
+     * changed are written, and nothing is written when the patch leaves the event as it was.
+     */
+    @PatchMapping(value = "/{id}", consumes = JsonMergePatch.MEDIA_TYPE)
+    public ResponseEntity patchEvent(@PathVariable Integer id,
+                                     @RequestBody JsonNode patch,
+                                     @CurrentUser Account currentUser) {
+
+        Optional<Event> optionalEvent = this.eventService.findEventForUpdate(id);
+        if (optionalEvent.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Event existingEvent = optionalEvent.get();
+        if (!existingEvent.getManager().equals(currentUser)) {
+            return new ResponseEntity(HttpStatus.UNAUTHORIZED);
+        }
+
+        EventDto eventDto = this.modelMapper.map(existingEvent, EventDto.class);
+        EventDto patchedDto;
+        try {
+            patchedDto = this.objectMapper.treeToValue(
+                    JsonMergePatch.apply(this.objectMapper.valueToTree(eventDto), patch), EventDto.class);
+        } catch (InvalidEventDtoException e) {
+            return badRequest(e.getErrors());
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Errors errors = new BeanPropertyBindingResult(patchedDto, EventDtoDeserializer.OBJECT_NAME);
+        this.eventValidator.validate(patchedDto, errors);
+        if (errors.hasErrors()) {
+            return badRequest(errors);
+        }
+
+        Event savedEvent = existingEvent;
+        if (!patchedDto.equals(eventDto)) {
+            this.modelMapper.map(patchedDto, existingEvent);
+            existingEvent.update();
+            savedEvent = this.eventService.updateEvent(existingEvent);
+        }
+
+        EventResource eventResource = toResource(savedEvent);
+        eventResource.add(Link.of("/docs/index.html#resources-events-patch").withRel("profile"));
+
+        return ResponseEntity.ok(eventResource);
+    }
+
+    @GetMapping("/updates/{ticketId}")
+    public ResponseEntity getEventUpdate(@PathVariable String ticketId) {
+
+        Optional<EventUpdateTicket> optionalTicket = this.eventUpdateQueue.getTicket(ticketId);
+        if (optionalTicket.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(toResource(optionalTicket.get()));
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity unreadableBody(HttpMessageNotReadableException e) {
+        if (e.getCause() instanceof InvalidEventDtoException) {
+            return badRequest(((InvalidEventDtoException) e.getCause()).getErrors());
+        }
+        return ResponseEntity.badRequest().build();
+    }
+
+    private ResponseEntity acceptUpdate(Integer id, EventDto eventDto) {
+        Optional<EventUpdateTicket> optionalTicket = this.eventUpdateQueue.submit(id, eventDto);
+        if (optionalTicket.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+
+        EventUpdateTicket ticket = optionalTicket.get();
+        var ticketResource = toResource(ticket);
+        ticketResource.add(Link.of("/docs/index.html#resources-events-update-async").withRel("profile"));
+
+        return ResponseEntity.accepted().location(this.apiLinks.eventUpdate(ticket.getId()).toUri()).body(ticketResource);
+    }
+
+    private EntityModel<EventUpdateTicket> toResource(EventUpdateTicket ticket) {
+        return EntityModel.of(ticket,
+                this.apiLinks.eventUpdate(ticket.getId()),
+                this.apiLinks.event(ticket.getEventId(), "event"));
+    }
+
+    private EventResource toResource(Event event) {
+        return new EventResource(event, this.apiLinks.event(event.getId()));
+    }
+
     private ResponseEntity badRequest(Errors errors) {
-        return ResponseEntity.badRequest().body(new ErrorsResource(errors));
+        return ResponseEntity.badRequest().body(new ErrorsResource(errors, this.apiLinks.index("index")));
     }
 }
\ No newline at end of file
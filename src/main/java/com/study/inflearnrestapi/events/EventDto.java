@@ -23,6 +23,8 @@ public class EventDto {
     @NotNull
     private LocalDateTime beginEventDateTime;
     private String location;
+    private Double latitude;
+    private Double longitude;
     @Min(0)
     private int basePrice;
     @Min(0)
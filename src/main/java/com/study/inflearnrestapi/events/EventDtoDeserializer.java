@@ -0,0 +1,198 @@
+package com.study.inflearnrestapi.events;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import org.springframework.boot.jackson.JsonComponent;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads {@link EventDto} straight from the token stream and checks each field as it is read. The first unknown
+ * property, value of the wrong type, empty name/description, negative number or out of range coordinate stops the
+ * parse with an {@link InvalidEventDtoException}; the rest of the body is never read. Missing fields and the rules
+ * across fields are left to {@link EventValidator}.
+ */
+@JsonComponent
+public class EventDtoDeserializer extends JsonDeserializer<EventDto> {
+
+    static final String OBJECT_NAME = "eventDto";
+
+    private final EventValidator eventValidator;
+
+    public EventDtoDeserializer(EventValidator eventValidator) {
+        this.eventValidator = eventValidator;
+    }
+
+    @Override
+    public EventDto deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        EventDto eventDto = new EventDto();
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            throw invalid(p, eventDto, new ObjectError(OBJECT_NAME, new String[]{"typeMismatch"}, null, "request body must be a JSON object"));
+        }
+
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.getCurrentName();
+            p.nextToken();
+            switch (field) {
+                case "name":
+                    eventDto.setName(readNotEmpty(p, eventDto, field));
+                    break;
+                case "description":
+                    eventDto.setDescription(readNotEmpty(p, eventDto, field));
+                    break;
+                case "location":
+                    eventDto.setLocation(readString(p, eventDto, field));
+                    break;
+                case "beginEnrollmentDateTime":
+                    eventDto.setBeginEnrollmentDateTime(readDateTime(p, ctxt, eventDto, field));
+                    break;
+                case "closeEnrollmentDateTime":
+                    eventDto.setCloseEnrollmentDateTime(readDateTime(p, ctxt, eventDto, field));
+                    break;
+                case "beginEventDateTime":
+                    eventDto.setBeginEventDateTime(readDateTime(p, ctxt, eventDto, field));
+                    break;
+                case "endEventDateTime":
+                    eventDto.setEndEventDateTime(readDateTime(p, ctxt, eventDto, field));
+                    break;
+                case "basePrice":
+                    eventDto.setBasePrice(readNotNegative(p, eventDto, field));
+                    break;
+                case "maxPrice":
+                    eventDto.setMaxPrice(readNotNegative(p, eventDto, field));
+                    break;
+                case "limitOfEnrollment":
+                    eventDto.setLimitOfEnrollment(readNotNegative(p, eventDto, field));
+                    break;
+                case "latitude":
+                    Double latitude = readDouble(p, eventDto, field);
+                    if (latitude != null && !EventValidator.validLatitude(latitude)) {
+                        throw rejectValue(p, eventDto, field, latitude, "wrongValue", "latitude is wrongValue");
+                    }
+                    eventDto.setLatitude(latitude);
+                    break;
+                case "longitude":
+                    Double longitude = readDouble(p, eventDto, field);
+                    if (longitude != null && !EventValidator.validLongitude(longitude)) {
+                        throw rejectValue(p, eventDto, field, longitude, "wrongValue", "longitude is wrongValue");
+                    }
+                    eventDto.setLongitude(longitude);
+                    break;
+                default:
+                    throw rejectValue(p, eventDto, field, null, "unknownProperty", "unknown property");
+            }
+        }
+        return eventDto;
+    }
+
+    private String readNotEmpty(JsonParser p, EventDto eventDto, String field) throws IOException {
+        String value = readString(p, eventDto, field);
+        if (value == null || value.isEmpty()) {
+            throw rejectValue(p, eventDto, field, value, "NotEmpty", this.eventValidator.message(field, value));
+        }
+        return value;
+    }
+
+    private String readString(JsonParser p, EventDto eventDto, String field) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw typeMismatch(p, eventDto, field, null);
+        }
+        return p.getText();
+    }
+
+    private int readNotNegative(JsonParser p, EventDto eventDto, String field) throws IOException {
+        int value;
+        switch (p.currentToken()) {
+            case VALUE_NULL:
+                return 0;
+            case VALUE_NUMBER_INT:
+                if (p.getNumberType() != JsonParser.NumberType.INT) {
+                    throw typeMismatch(p, eventDto, field, p.getText());
+                }
+                value = p.getIntValue();
+                break;
+            case VALUE_STRING:
+                try {
+                    value = Integer.parseInt(p.getText().trim());
+                } catch (NumberFormatException e) {
+                    throw typeMismatch(p, eventDto, field, p.getText());
+                }
+                break;
+            default:
+                throw typeMismatch(p, eventDto, field, p.currentToken().isScalarValue() ? p.getText() : null);
+        }
+        if (value < 0) {
+            throw rejectValue(p, eventDto, field, value, "Min", this.eventValidator.message(field, value));
+        }
+        return value;
+    }
+
+    private Double readDouble(JsonParser p, EventDto eventDto, String field) throws IOException {
+        switch (p.currentToken()) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return p.getDoubleValue();
+            case VALUE_STRING:
+                try {
+                    return Double.valueOf(p.getText().trim());
+                } catch (NumberFormatException e) {
+                    throw typeMismatch(p, eventDto, field, p.getText());
+                }
+            default:
+                throw typeMismatch(p, eventDto, field, p.currentToken().isScalarValue() ? p.getText() : null);
+        }
+    }
+
+    private LocalDateTime readDateTime(JsonParser p, DeserializationContext ctxt, EventDto eventDto, String field) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return LocalDateTime.parse(p.getText().trim());
+            } catch (DateTimeParseException e) {
+                throw typeMismatch(p, eventDto, field, p.getText());
+            }
+        }
+        if (token == JsonToken.START_ARRAY) {
+            try {
+                return ctxt.readValue(p, LocalDateTime.class);
+            } catch (IOException e) {
+                throw typeMismatch(p, eventDto, field, null);
+            }
+        }
+        throw typeMismatch(p, eventDto, field, token.isScalarValue() ? p.getText() : null);
+    }
+
+    private InvalidEventDtoException typeMismatch(JsonParser p, EventDto eventDto, String field, Object rejectedValue) {
+        return rejectValue(p, eventDto, field, rejectedValue, "typeMismatch", field + " has a wrong type");
+    }
+
+    private InvalidEventDtoException rejectValue(JsonParser p, EventDto eventDto, String field, Object rejectedValue,
+                                                 String code, String defaultMessage) {
+        return invalid(p, eventDto, new FieldError(OBJECT_NAME, field, rejectedValue, false, new String[]{code}, null, defaultMessage));
+    }
+
+    private InvalidEventDtoException invalid(JsonParser p, EventDto eventDto, ObjectError error) {
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(eventDto, OBJECT_NAME);
+        errors.addError(error);
+        return new InvalidEventDtoException(p, errors);
+    }
+}
@@ -0,0 +1,29 @@
+package com.study.inflearnrestapi.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+public class EventEntityListener {
+
+    @Autowired
+    ApplicationEventPublisher publisher;
+
+    @PostPersist
+    public void postPersist(Event event) {
+        publisher.publishEvent(new EventChangedEvent(event, EventChangedEvent.Type.CREATED));
+    }
+
+    @PostUpdate
+    public void postUpdate(Event event) {
+        publisher.publishEvent(new EventChangedEvent(event, EventChangedEvent.Type.UPDATED));
+    }
+
+    @PostRemove
+    public void postRemove(Event event) {
+        publisher.publishEvent(new EventChangedEvent(event, EventChangedEvent.Type.DELETED));
+    }
+}
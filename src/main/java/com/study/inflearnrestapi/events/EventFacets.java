@@ -0,0 +1,166 @@
+package com.study.inflearnrestapi.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Facet counters for the event list. Writes adjust the counters through {@link EventChangedEvent}s and
+ * the whole state is periodically rebuilt from the database to correct any drift.
+ */
+@Component
+public class EventFacets {
+
+    public enum PriceBand {
+        FREE("0", 0), LOW("1-9999", 1), MIDDLE("10000-49999", 10000), HIGH("50000+", 50000);
+
+        private final String label;
+        private final int lowerBound;
+
+        PriceBand(String label, int lowerBound) {
+            this.label = label;
+            this.lowerBound = lowerBound;
+        }
+
+        public static PriceBand of(int basePrice) {
+            PriceBand[] bands = values();
+            for (int i = bands.length - 1; i > 0; i--) {
+                if (basePrice >= bands[i].lowerBound) {
+                    return bands[i];
+                }
+            }
+            return FREE;
+        }
+    }
+
+    private static final int STATUS_OFFSET = 0;
+    private static final int FREE_OFFSET = STATUS_OFFSET + EventStatus.values().length;
+    private static final int OFFLINE_OFFSET = FREE_OFFSET + 2;
+    private static final int PRICE_OFFSET = OFFLINE_OFFSET + 2;
+    private static final int SLOTS = PRICE_OFFSET + PriceBand.values().length;
+
+    private volatile AtomicLongArray counts = new AtomicLongArray(SLOTS);
+    private volatile Map<Integer, Key> keys = new ConcurrentHashMap<>();
+    private final Object reconcileLock = new Object();
+    /** Changes seen while a reconcile is scanning, or {@code null} when none is. */
+    private List<EventChangedEvent> pending;
+
+    @Autowired
+    EventService eventService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${my-app.events.facets-reconcile-interval-ms:300000}",
+            fixedDelayString = "${my-app.events.facets-reconcile-interval-ms:300000}")
+    public void reconcile() {
+        synchronized (this.reconcileLock) {
+            synchronized (this) {
+                this.pending = new ArrayList<>();
+            }
+            AtomicLongArray newCounts = new AtomicLongArray(SLOTS);
+            Map<Integer, Key> newKeys = new ConcurrentHashMap<>();
+            this.eventService.findFacetRows().forEach(row -> {
+                Key key = new Key((EventStatus) row[1], (Boolean) row[2], (Boolean) row[3], (Integer) row[4]);
+                newKeys.put((Integer) row[0], key);
+                key.apply(newCounts, 1);
+            });
+
+            synchronized (this) {
+                this.pending.forEach(changedEvent -> apply(newCounts, newKeys, changedEvent));
+                this.pending = null;
+                this.counts = newCounts;
+                this.keys = newKeys;
+            }
+        }
+    }
+
+    /**
+     * Changes that arrive while {@link #reconcile()} scans are also replayed onto the new counters, since the scan may
+     * have read the rows before they were committed. Replaying a change the scan already saw leaves the counters as
+     * they are.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEventChanged(EventChangedEvent changedEvent) {
+        apply(this.counts, this.keys, changedEvent);
+        if (this.pending != null) {
+            this.pending.add(changedEvent);
+        }
+    }
+
+    private static void apply(AtomicLongArray counts, Map<Integer, Key> keys, EventChangedEvent changedEvent) {
+        Event event = changedEvent.getEvent();
+        Key previous = changedEvent.getType().isRemoval()
+                ? keys.remove(event.getId())
+                : keys.put(event.getId(), Key.of(event));
+
+        if (previous != null) {
+            previous.apply(counts, -1);
+        }
+        if (!changedEvent.getType().isRemoval()) {
+            keys.get(event.getId()).apply(counts, 1);
+        }
+    }
+
+    public Map<String, Map<String, Long>> snapshot() {
+        AtomicLongArray counts = this.counts;
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        for (EventStatus status : EventStatus.values()) {
+            statuses.put(status.name(), counts.get(STATUS_OFFSET + status.ordinal()));
+        }
+        facets.put("eventStatus", statuses);
+        facets.put("free", booleanFacet(counts, FREE_OFFSET));
+        facets.put("offline", booleanFacet(counts, OFFLINE_OFFSET));
+
+        Map<String, Long> priceBands = new LinkedHashMap<>();
+        for (PriceBand band : PriceBand.values()) {
+            priceBands.put(band.label, counts.get(PRICE_OFFSET + band.ordinal()));
+        }
+        facets.put("basePrice", priceBands);
+
+        return facets;
+    }
+
+    private static Map<String, Long> booleanFacet(AtomicLongArray counts, int offset) {
+        Map<String, Long> facet = new HashMap<>(4);
+        facet.put("true", counts.get(offset + 1));
+        facet.put("false", counts.get(offset));
+        return facet;
+    }
+
+    private static class Key {
+        private final EventStatus eventStatus;
+        private final boolean free;
+        private final boolean offline;
+        private final PriceBand priceBand;
+
+        Key(EventStatus eventStatus, boolean free, boolean offline, int basePrice) {
+            this.eventStatus = eventStatus == null ? EventStatus.DRAFT : eventStatus;
+            this.free = free;
+            this.offline = offline;
+            this.priceBand = PriceBand.of(basePrice);
+        }
+
+        static Key of(Event event) {
+            return new Key(event.getEventStatus(), event.isFree(), event.isOffline(), event.getBasePrice());
+        }
+
+        void apply(AtomicLongArray counts, int delta) {
+            counts.addAndGet(STATUS_OFFSET + this.eventStatus.ordinal(), delta);
+            counts.addAndGet(FREE_OFFSET + (this.free ? 1 : 0), delta);
+            counts.addAndGet(OFFLINE_OFFSET + (this.offline ? 1 : 0), delta);
+            counts.addAndGet(PRICE_OFFSET + this.priceBand.ordinal(), delta);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid index over event coordinates. Events are bucketed into cells of {@link #CELL_DEGREES}
+ * so that radius and nearest queries only compute distances for the cells around the query point.
+ */
+@Component
+public class EventGeoIndex {
+
+    static final double CELL_DEGREES = 0.1;
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final double MAX_DISTANCE_KM = Math.PI * EARTH_RADIUS_KM;
+    private static final int LON_CELLS = (int) Math.round(360 / CELL_DEGREES);
+
+    private final Map<Integer, Point> points = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Point>> cells = new ConcurrentHashMap<>();
+
+    @Autowired
+    EventService eventService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        clear();
+        this.eventService.findEventsWithCoordinates().forEach(this::put);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent changedEvent) {
+        Event event = changedEvent.getEvent();
+        if (changedEvent.getType().isRemoval() || !event.hasCoordinates()) {
+            remove(event.getId());
+        } else {
+            put(event);
+        }
+    }
+
+    public synchronized void put(Event event) {
+        remove(event.getId());
+        Point point = new Point(event.getId(), event.getLatitude(), event.getLongitude());
+        this.points.put(point.id, point);
+        this.cells.computeIfAbsent(point.cell, c -> ConcurrentHashMap.newKeySet()).add(point);
+    }
+
+    public synchronized void remove(Integer id) {
+        Point point = this.points.remove(id);
+        if (point != null) {
+            this.cells.computeIfPresent(point.cell, (c, set) -> set.remove(point) && set.isEmpty() ? null : set);
+        }
+    }
+
+    public synchronized void clear() {
+        this.points.clear();
+        this.cells.clear();
+    }
+
+    public int size() {
+        return this.points.size();
+    }
+
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        List<Hit> hits = new ArrayList<>();
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double minLat = latitude - latSpan;
+        double maxLat = latitude + latSpan;
+        double cos = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        double lonSpan = cos > 0 ? latSpan / cos : 360;
+
+        int minLatCell = latCell(Math.max(-90, minLat));
+        int maxLatCell = latCell(Math.min(90, maxLat));
+        int lonCellSpan = maxLat >= 90 || minLat <= -90 || lonSpan >= 180
+                ? LON_CELLS : (int) Math.ceil(lonSpan / CELL_DEGREES) * 2 + 1;
+        long cellCount = (long) (maxLatCell - minLatCell + 1) * Math.min(lonCellSpan, LON_CELLS);
+
+        if (cellCount > this.points.size()) {
+            this.points.values().forEach(p -> collect(p, latitude, longitude, radiusKm, hits));
+        } else {
+            int firstLonCell = lonCellSpan >= LON_CELLS ? 0 : lonCell(longitude) - lonCellSpan / 2;
+            for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+                for (int i = 0; i < Math.min(lonCellSpan, LON_CELLS); i++) {
+                    Set<Point> cell = this.cells.get(cellKey(latCell, Math.floorMod(firstLonCell + i, LON_CELLS)));
+                    if (cell != null) {
+                        cell.forEach(p -> collect(p, latitude, longitude, radiusKm, hits));
+                    }
+                }
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::getDistanceKm));
+        return hits.size() > limit ? hits.subList(0, limit) : hits;
+    }
+
+    public List<Hit> nearest(double latitude, double longitude, int k) {
+        double radiusKm = CELL_DEGREES * KM_PER_DEGREE;
+        while (true) {
+            List<Hit> hits = withinRadius(latitude, longitude, radiusKm, k);
+            if (hits.size() >= k || radiusKm >= MAX_DISTANCE_KM) {
+                return hits;
+            }
+            radiusKm = Math.min(radiusKm * 2, MAX_DISTANCE_KM);
+        }
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static void collect(Point point, double latitude, double longitude, double radiusKm, List<Hit> hits) {
+        double distance = distanceKm(latitude, longitude, point.latitude, point.longitude);
+        if (distance <= radiusKm) {
+            hits.add(new Hit(point.id, distance));
+        }
+    }
+
+    private static int latCell(double latitude) {
+        return (int) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+
+    private static int lonCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), LON_CELLS);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | lonCell;
+    }
+
+    @Getter @AllArgsConstructor
+    public static class Hit {
+        private final Integer id;
+        private final double distanceKm;
+    }
+
+    private static class Point {
+        private final Integer id;
+        private final double latitude;
+        private final double longitude;
+        private final long cell;
+
+        Point(Integer id, double latitude, double longitude) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cell = cellKey(latCell(latitude), lonCell(longitude));
+        }
+    }
+}
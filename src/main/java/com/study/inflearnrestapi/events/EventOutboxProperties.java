@@ -0,0 +1,20 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "my-app.events.outbox")
+@Component
+public class EventOutboxProperties {
+
+    private int batchSize = 500;
+
+    private long maxWaitMs = 30_000;
+
+    private int maxWaiters = 10_000;
+
+    private int retentionDays = 7;
+}
@@ -0,0 +1,27 @@
+package com.study.inflearnrestapi.events;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.Map;
+
+/**
+ * A page of events together with the facet counts of the whole list. The page is unwrapped, so its {@code _embedded},
+ * {@code page} and {@code _links} render next to {@code facets}; add links to the page before wrapping it.
+ */
+public class EventPagedModel<T> extends RepresentationModel<EventPagedModel<T>> {
+
+    @JsonUnwrapped
+    private final PagedModel<T> pagedModel;
+    private final Map<String, Map<String, Long>> facets;
+
+    public EventPagedModel(PagedModel<T> pagedModel, Map<String, Map<String, Long>> facets) {
+        this.pagedModel = pagedModel;
+        this.facets = facets;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,18 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "my-app.events.read")
+@Component
+public class EventReadProperties {
+
+    private boolean coalesce = true;
+
+    private long coalesceTimeoutMs = 1000;
+
+    private int maxInFlight = 10_000;
+}
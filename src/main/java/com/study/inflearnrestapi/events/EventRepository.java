@@ -1,6 +1,66 @@
 package com.study.inflearnrestapi.events;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 public interface EventRepository extends JpaRepository<Event, Integer> {
+
+    List<Event> findByLatitudeNotNullAndLongitudeNotNull();
+
+    List<Event> findByEventStatusIn(Collection<EventStatus> eventStatuses);
+
+    List<Event> findByEventStatusInAndEndEventDateTimeAfter(Collection<EventStatus> eventStatuses, LocalDateTime dateTime);
+
+    @Query("select e.id, e.eventStatus, e.free, e.offline, e.basePrice from Event e")
+    List<Object[]> findFacetRows();
+
+    @Query("select e.id, e.eventStatus, e.basePrice, e.maxPrice, e.limitOfEnrollment, e.beginEventDateTime"
+            + " from Event e order by e.id")
+    List<Object[]> findStatsRows();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Event e where e.endEventDateTime < :before order by e.id")
+    List<Event> findEndedBeforeForUpdate(LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("insert into ArchivedEvent (id, name, description, beginEnrollmentDateTime, closeEnrollmentDateTime,"
+            + " endEventDateTime, beginEventDateTime, location, latitude, longitude, basePrice, maxPrice,"
+            + " limitOfEnrollment, offline, free, eventStatus, manager)"
+            + " select e.id, e.name, e.description, e.beginEnrollmentDateTime, e.closeEnrollmentDateTime,"
+            + " e.endEventDateTime, e.beginEventDateTime, e.location, e.latitude, e.longitude, e.basePrice, e.maxPrice,"
+            + " e.limitOfEnrollment, e.offline, e.free, e.eventStatus, e.manager"
+            + " from Event e where e.id in :ids")
+    int copyToArchive(Collection<Integer> ids);
+
+    @Query("select a from ArchivedEvent a where a.id = :id")
+    Optional<ArchivedEvent> findArchivedById(Integer id);
+
+    /**
+     * Moves up to {@code batchSize} events that ended before {@code before} to the archive. Must run in a transaction.
+     * The events are locked before they are copied, so an update that commits first is archived with them and one
+     * that comes later waits for the move.
+     *
+     * @return the ids of the moved events
+     */
+    default List<Integer> archiveEndedBefore(LocalDateTime before, int batchSize) {
+        List<Integer> ids = findEndedBeforeForUpdate(before, PageRequest.of(0, batchSize)).stream()
+                .map(Event::getId)
+                .collect(Collectors.toList());
+        if (!ids.isEmpty()) {
+            copyToArchive(ids);
+            deleteAllByIdInBatch(ids);
+        }
+        return ids;
+    }
 }
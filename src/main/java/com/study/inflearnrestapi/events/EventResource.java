@@ -3,12 +3,9 @@ package com.study.inflearnrestapi.events;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
 public class EventResource extends EntityModel<Event> {
 
     public EventResource(Event event, Link... links) {
         super(event, links);
-        add(linkTo(EventController.class).slash(event.getId()).withSelfRel());
     }
-}
\ No newline at end of file
+}
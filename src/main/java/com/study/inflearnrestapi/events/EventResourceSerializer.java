@@ -0,0 +1,144 @@
+package com.study.inflearnrestapi.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.study.inflearnrestapi.accounts.Account;
+import org.springframework.boot.jackson.JsonComponent;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link EventResource} as HAL JSON straight to the generator instead of going through the
+ * reflective bean serializer and the HAL link mixins. The output matches the HAL module field for field.
+ */
+@JsonComponent
+public class EventResourceSerializer extends JsonSerializer<EventResource> {
+
+    @Override
+    public void serialize(EventResource eventResource, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject();
+        writeEvent(eventResource.getContent(), gen, serializers);
+        writeLinks(eventResource.getLinks(), gen);
+        gen.writeEndObject();
+    }
+
+    private void writeEvent(Event event, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        writeNumber(gen, "id", event.getId());
+        writeString(gen, "name", event.getName());
+        writeString(gen, "description", event.getDescription());
+        writeDateTime(gen, serializers, "beginEnrollmentDateTime", event.getBeginEnrollmentDateTime());
+        writeDateTime(gen, serializers, "closeEnrollmentDateTime", event.getCloseEnrollmentDateTime());
+        writeDateTime(gen, serializers, "endEventDateTime", event.getEndEventDateTime());
+        writeDateTime(gen, serializers, "beginEventDateTime", event.getBeginEventDateTime());
+        writeString(gen, "location", event.getLocation());
+        writeNumber(gen, "latitude", event.getLatitude());
+        writeNumber(gen, "longitude", event.getLongitude());
+        gen.writeNumberField("basePrice", event.getBasePrice());
+        gen.writeNumberField("maxPrice", event.getMaxPrice());
+        gen.writeNumberField("limitOfEnrollment", event.getLimitOfEnrollment());
+        gen.writeBooleanField("offline", event.isOffline());
+        gen.writeBooleanField("free", event.isFree());
+        writeString(gen, "eventStatus", event.getEventStatus() == null ? null : event.getEventStatus().name());
+
+        Account manager = event.getManager();
+        gen.writeFieldName("manager");
+        if (manager == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartObject();
+            gen.writeNumberField("id", manager.getId());
+            gen.writeEndObject();
+        }
+    }
+
+    private void writeLinks(Links links, JsonGenerator gen) throws IOException {
+        if (links.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<Link>> linksByRel = new LinkedHashMap<>();
+        for (Link link : links) {
+            linksByRel.computeIfAbsent(link.getRel().value(), r -> new ArrayList<>(1)).add(link);
+        }
+
+        gen.writeFieldName("_links");
+        gen.writeStartObject();
+        for (Map.Entry<String, List<Link>> entry : linksByRel.entrySet()) {
+            gen.writeFieldName(entry.getKey());
+            List<Link> relLinks = entry.getValue();
+            if (relLinks.size() == 1) {
+                writeLink(relLinks.get(0), gen);
+            } else {
+                gen.writeStartArray();
+                for (Link link : relLinks) {
+                    writeLink(link, gen);
+                }
+                gen.writeEndArray();
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private void writeLink(Link link, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("href", link.getHref());
+        writeOptionalString(gen, "hreflang", link.getHreflang());
+        writeOptionalString(gen, "title", link.getTitle());
+        writeOptionalString(gen, "type", link.getType());
+        writeOptionalString(gen, "deprecation", link.getDeprecation());
+        writeOptionalString(gen, "profile", link.getProfile());
+        writeOptionalString(gen, "name", link.getName());
+        if (link.isTemplated()) {
+            gen.writeBooleanField("templated", true);
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeDateTime(JsonGenerator gen, SerializerProvider serializers, String name, LocalDateTime value) throws IOException {
+        if (value != null && serializers.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            serializers.defaultSerializeField(name, value, gen);
+        } else {
+            writeString(gen, name, value == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+
+    private static void writeString(JsonGenerator gen, String name, String value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeStringField(name, value);
+        }
+    }
+
+    private static void writeOptionalString(JsonGenerator gen, String name, String value) throws IOException {
+        if (value != null) {
+            gen.writeStringField(name, value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, String name, Integer value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, String name, Double value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value);
+        }
+    }
+}
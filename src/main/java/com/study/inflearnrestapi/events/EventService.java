@@ -0,0 +1,212 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.common.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * The one place events are read and written. When {@link EventShards} is configured the events and their outbox rows
+ * go to the shard of their manager, from where {@link EventChangeRelay} moves the rows to the main datasource.
+ */
+@Service
+public class EventService {
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EventChangeRepository eventChangeRepository;
+
+    @Autowired
+    EventReadProperties eventReadProperties;
+
+    @Autowired(required = false)
+    EventShards eventShards;
+
+    @Autowired(required = false)
+    EventCatalog eventCatalog;
+
+    @Autowired
+    ApplicationEventPublisher publisher;
+
+    private SingleFlight<Integer, Optional<Event>> eventReads;
+    private SingleFlight<Pageable, Page<Event>> pageReads;
+
+    @PostConstruct
+    public void init() {
+        this.eventReads = new SingleFlight<>(eventReadProperties.getCoalesceTimeoutMs(), eventReadProperties.getMaxInFlight());
+        this.pageReads = new SingleFlight<>(eventReadProperties.getCoalesceTimeoutMs(), eventReadProperties.getMaxInFlight());
+    }
+
+    /**
+     * Published events are served from the {@link EventCatalog} when it is enabled, and events moved by
+     * {@link EventArchiver} from the archive. Concurrent reads of the same event share one query and the same
+     * detached copy, so callers must not modify it.
+     */
+    public Optional<Event> findEvent(Integer id) {
+        if (this.eventCatalog != null) {
+            Optional<Event> published = this.eventCatalog.find(id);
+            if (published.isPresent()) {
+                return published;
+            }
+        }
+        if (!canCoalesce()) {
+            return findEventOrArchived(id);
+        }
+        return this.eventReads.execute(id, () -> findEventOrArchived(id).map(EventUpcomingIndex::copyOf));
+    }
+
+    /**
+     * Reads an event that the caller may modify and save.
+     */
+    public Optional<Event> findEventForUpdate(Integer id) {
+        return this.eventShards != null ? this.eventShards.findById(id) : this.eventRepository.findById(id);
+    }
+
+    /**
+     * Concurrent reads of the same page share one query and the same detached copies, so callers must not modify them.
+     */
+    public Page<Event> findEvents(Pageable pageable) {
+        if (!canCoalesce()) {
+            return queryEvents(pageable);
+        }
+        return this.pageReads.execute(pageable, () -> queryEvents(pageable).map(EventUpcomingIndex::copyOf));
+    }
+
+    /**
+     * Whether {@link #findEvents} supports {@code sort}, which with {@link EventShards} excludes string and enum keys.
+     */
+    public boolean canSort(Sort sort) {
+        return this.eventShards == null || this.eventShards.canMerge(sort);
+    }
+
+    public List<Event> findEventsById(Collection<Integer> ids) {
+        return this.eventShards != null ? this.eventShards.findAllById(ids) : this.eventRepository.findAllById(ids);
+    }
+
+    public List<Event> findEventsWithCoordinates() {
+        return this.eventShards != null ? this.eventShards.findWithCoordinates() : this.eventRepository.findByLatitudeNotNullAndLongitudeNotNull();
+    }
+
+    public List<Event> findEventsByStatus(Collection<EventStatus> eventStatuses) {
+        return this.eventShards != null
+                ? this.eventShards.findByStatus(eventStatuses)
+                : this.eventRepository.findByEventStatusIn(eventStatuses);
+    }
+
+    public List<Event> findEventsNotEnded(Collection<EventStatus> eventStatuses, LocalDateTime dateTime) {
+        return this.eventShards != null
+                ? this.eventShards.findNotEnded(eventStatuses, dateTime)
+                : this.eventRepository.findByEventStatusInAndEndEventDateTimeAfter(eventStatuses, dateTime);
+    }
+
+    public List<Object[]> findFacetRows() {
+        return this.eventShards != null ? this.eventShards.findFacetRows() : this.eventRepository.findFacetRows();
+    }
+
+    /**
+     * Rows of {@code id, eventStatus, basePrice, maxPrice, limitOfEnrollment, beginEventDateTime}, ordered by id.
+     */
+    public List<Object[]> findStatsRows() {
+        return this.eventShards != null ? this.eventShards.findStatsRows() : this.eventRepository.findStatsRows();
+    }
+
+    /**
+     * Moves up to {@code batchSize} events (per shard) that ended before {@code before} to the archive and records
+     * an {@link EventChangedEvent.Type#ARCHIVED} change for each of them.
+     *
+     * @return the ids of the archived events
+     */
+    @Transactional
+    public List<Integer> archiveEvents(LocalDateTime before, int batchSize) {
+        List<Integer> ids;
+        if (this.eventShards != null) {
+            ids = this.eventShards.archiveEndedBefore(before, batchSize);
+        } else {
+            ids = this.eventRepository.archiveEndedBefore(before, batchSize);
+            this.eventChangeRepository.saveAll(ids.stream()
+                    .map(id -> EventChange.of(id, EventChangedEvent.Type.ARCHIVED))
+                    .collect(Collectors.toList()));
+        }
+        ids.forEach(id -> this.publisher.publishEvent(
+                new EventChangedEvent(Event.builder().id(id).build(), EventChangedEvent.Type.ARCHIVED)));
+        return ids;
+    }
+
+    @Transactional
+    public Event createEvent(Event event) {
+        return save(event, EventChangedEvent.Type.CREATED);
+    }
+
+    @Transactional
+    public Event updateEvent(Event event) {
+        return save(event, EventChangedEvent.Type.UPDATED);
+    }
+
+    @Transactional
+    public List<Event> updateEvents(List<Event> events) {
+        if (this.eventShards != null) {
+            return this.eventShards.saveAll(events, EventChangedEvent.Type.UPDATED);
+        }
+        List<Event> savedEvents = this.eventRepository.saveAll(events);
+        this.eventChangeRepository.saveAll(savedEvents.stream()
+                .map(e -> EventChange.of(e, EventChangedEvent.Type.UPDATED))
+                .collect(Collectors.toList()));
+        return savedEvents;
+    }
+
+    /**
+     * Reads that start after a change has committed must not join one that started before it, or the client that made
+     * the change could read it back stale.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent changedEvent) {
+        this.eventReads.forget(changedEvent.getEvent().getId());
+        this.pageReads.forgetAll();
+    }
+
+    /**
+     * A caller inside a transaction may have written rows that another caller's query cannot see yet.
+     */
+    private boolean canCoalesce() {
+        return eventReadProperties.isCoalesce() && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    private Optional<Event> findEventOrArchived(Integer id) {
+        Optional<Event> event = findEventForUpdate(id);
+        if (event.isPresent()) {
+            return event;
+        }
+        Optional<ArchivedEvent> archived = this.eventShards != null
+                ? this.eventShards.findArchivedById(id)
+                : this.eventRepository.findArchivedById(id);
+        return archived.map(ArchivedEvent::toEvent);
+    }
+
+    private Page<Event> queryEvents(Pageable pageable) {
+        return this.eventShards != null ? this.eventShards.findAll(pageable) : this.eventRepository.findAll(pageable);
+    }
+
+    private Event save(Event event, EventChangedEvent.Type changeType) {
+        if (this.eventShards != null) {
+            return this.eventShards.save(event, changeType);
+        }
+        Event savedEvent = this.eventRepository.save(event);
+        this.eventChangeRepository.save(EventChange.of(savedEvent, changeType));
+        return savedEvent;
+    }
+}
@@ -0,0 +1,40 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "my-app.events.sharding")
+@Component
+public class EventShardingProperties {
+
+    private boolean enabled = false;
+
+    /** The shard list is part of the id scheme: an event with id {@code n} lives on shard {@code n % shards.size()}. */
+    private List<Shard> shards = new ArrayList<>();
+
+    /** Schema handling for the shard databases, passed to {@code hibernate.hbm2ddl.auto}. */
+    private String ddlAuto = "none";
+
+    @Getter @Setter
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private String driverClassName;
+
+        /** Pool settings for this shard, named like {@code spring.datasource.hikari.*}. */
+        private Map<String, String> hikari = new LinkedHashMap<>();
+    }
+}
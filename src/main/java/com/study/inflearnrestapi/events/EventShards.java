@@ -0,0 +1,367 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.accounts.Account;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stores events across several databases by manager. Each shard hands out ids from its own sequence, aligned once so
+ * that shard {@code k} of {@code n} only produces ids with {@code id % n == k}; a single event is found from its id alone.
+ * Lists are read from every shard in parallel and merged in sort order, which is limited to non-string keys. The manager's account row is copied into
+ * the shard before its first event is written there, so the foreign key holds inside each shard. Outbox rows are
+ * written on the shard together with the event, and {@link EventChangeRelay} moves them to the main datasource.
+ */
+public class EventShards implements AutoCloseable {
+
+    private final List<Shard> shards;
+    private final ExecutorService executor;
+
+    public EventShards(List<DataSource> dataSources, List<EntityManagerFactory> entityManagerFactories) {
+        this.shards = new ArrayList<>();
+        for (int i = 0; i < dataSources.size(); i++) {
+            this.shards.add(new Shard(i, dataSources.get(i), entityManagerFactories.get(i)));
+        }
+        this.executor = Executors.newFixedThreadPool(this.shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "event-shard-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+        alignSequences();
+    }
+
+    void alignSequences() {
+        int shardCount = this.shards.size();
+        this.shards.forEach(shard -> shard.alignSequence(shardCount));
+    }
+
+    public int size() {
+        return this.shards.size();
+    }
+
+    public int shardOfEvent(int id) {
+        return Math.floorMod(id, this.shards.size());
+    }
+
+    public int shardOfManager(Account manager) {
+        return manager == null ? 0 : Math.floorMod(manager.getId(), this.shards.size());
+    }
+
+    /**
+     * Saves the event and its outbox row in one transaction on the event's shard.
+     */
+    public Event save(Event event, EventChangedEvent.Type changeType) {
+        Shard shard = this.shards.get(event.getId() != null ? shardOfEvent(event.getId()) : shardOfManager(event.getManager()));
+        return shard.transactionTemplate.execute(tx -> {
+            shard.copyAccount(event.getManager());
+            Event savedEvent = shard.eventRepository.save(event);
+            shard.eventChangeRepository.save(EventChange.of(savedEvent, changeType));
+            return savedEvent;
+        });
+    }
+
+    public List<Event> saveAll(List<Event> events, EventChangedEvent.Type changeType) {
+        return events.stream().map(event -> save(event, changeType)).collect(Collectors.toList());
+    }
+
+    /**
+     * Archives up to {@code batchSize} ended events on every shard, each shard in its own transaction together with
+     * their outbox rows.
+     */
+    public List<Integer> archiveEndedBefore(LocalDateTime before, int batchSize) {
+        return gather(shard -> shard.transactionTemplate.execute(tx -> {
+            List<Integer> ids = shard.eventRepository.archiveEndedBefore(before, batchSize);
+            shard.eventChangeRepository.saveAll(ids.stream()
+                    .map(id -> EventChange.of(id, EventChangedEvent.Type.ARCHIVED))
+                    .collect(Collectors.toList()));
+            return ids;
+        })).stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    /**
+     * Hands the outbox rows written on every shard to {@code target} a batch at a time, and deletes them from the shard
+     * after {@code target} returned. The rows stay locked meanwhile, so relays on other nodes do not take them too;
+     * a failure in between hands the batch over again, so every row is moved at least once.
+     */
+    public void moveChanges(int batchSize, Consumer<List<EventChange>> target) {
+        for (Shard shard : this.shards) {
+            int moved;
+            do {
+                moved = shard.transactionTemplate.execute(tx -> {
+                    List<EventChange> changes = shard.eventChangeRepository.findUnpublishedForUpdate(PageRequest.of(0, batchSize));
+                    if (!changes.isEmpty()) {
+                        target.accept(changes.stream()
+                                .map(change -> EventChange.builder()
+                                        .eventId(change.getEventId())
+                                        .type(change.getType())
+                                        .occurredAt(change.getOccurredAt())
+                                        .build())
+                                .collect(Collectors.toList()));
+                        shard.eventChangeRepository.deleteAllInBatch(changes);
+                    }
+                    return changes.size();
+                });
+            } while (moved == batchSize);
+        }
+    }
+
+    public Optional<ArchivedEvent> findArchivedById(int id) {
+        return this.shards.get(shardOfEvent(id)).eventRepository.findArchivedById(id);
+    }
+
+    public Optional<Event> findById(int id) {
+        return this.shards.get(shardOfEvent(id)).eventRepository.findById(id);
+    }
+
+    public List<Event> findAllById(Collection<Integer> ids) {
+        Map<Integer, List<Integer>> idsByShard = ids.stream().collect(Collectors.groupingBy(this::shardOfEvent));
+        return gather(shard -> {
+            List<Integer> shardIds = idsByShard.get(shard.index);
+            return shardIds == null ? List.<Event>of() : shard.eventRepository.findAllById(shardIds);
+        }).stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    public List<Event> findWithCoordinates() {
+        return gather(shard -> shard.eventRepository.findByLatitudeNotNullAndLongitudeNotNull())
+                .stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    public List<Event> findByStatus(Collection<EventStatus> eventStatuses) {
+        return gather(shard -> shard.eventRepository.findByEventStatusIn(eventStatuses))
+                .stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    public List<Event> findNotEnded(Collection<EventStatus> eventStatuses, LocalDateTime dateTime) {
+        return gather(shard -> shard.eventRepository.findByEventStatusInAndEndEventDateTimeAfter(eventStatuses, dateTime))
+                .stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    public List<Object[]> findFacetRows() {
+        return gather(shard -> shard.eventRepository.findFacetRows())
+                .stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    public List<Object[]> findStatsRows() {
+        return gather(shard -> shard.eventRepository.findStatsRows())
+                .stream().flatMap(List::stream)
+                .sorted(Comparator.comparing(row -> (Integer) row[0]))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Whether {@link #findAll} can merge pages in the order of {@code sort}. The merge compares values in Java, which
+     * only agrees with the database for numbers, booleans and dates; strings and enums are ordered by the collation of
+     * the database, so they are not supported.
+     */
+    public boolean canMerge(Sort sort) {
+        for (Sort.Order order : sort) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(Event.class, order.getProperty());
+            if (descriptor == null || !isMergeable(descriptor.getPropertyType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the first {@code offset + size} events of every shard in parallel and k-way merges them, so the cost
+     * grows with the page number.
+     */
+    public Page<Event> findAll(Pageable pageable) {
+        if (!canMerge(pageable.getSort())) {
+            throw new IllegalArgumentException("Sharded events cannot be sorted by " + pageable.getSort());
+        }
+        Sort sort = pageable.getSort().and(Sort.by("id"));
+        Pageable head = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), sort);
+        List<Page<Event>> pages = gather(shard -> shard.eventRepository.findAll(head));
+
+        Comparator<Event> comparator = comparator(sort);
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>((a, b) -> comparator.compare(a.current(), b.current()));
+        long total = 0;
+        for (Page<Event> page : pages) {
+            total += page.getTotalElements();
+            if (page.hasContent()) {
+                cursors.add(new Cursor(page.getContent()));
+            }
+        }
+
+        List<Event> content = new ArrayList<>(pageable.getPageSize());
+        for (long skipped = 0; !cursors.isEmpty() && content.size() < pageable.getPageSize(); ) {
+            Cursor cursor = cursors.poll();
+            Event event = cursor.current();
+            if (skipped < pageable.getOffset()) {
+                skipped++;
+            } else {
+                content.add(event);
+            }
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Closes each shard's entity manager factory and then its data source, if that is a pool that can be closed.
+     */
+    @Override
+    public void close() throws Exception {
+        this.executor.shutdownNow();
+        Exception failure = null;
+        for (Shard shard : this.shards) {
+            try {
+                shard.entityManagerFactory.close();
+                if (shard.dataSource instanceof AutoCloseable) {
+                    ((AutoCloseable) shard.dataSource).close();
+                }
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    List<DataSource> dataSources() {
+        return this.shards.stream().map(shard -> shard.dataSource).collect(Collectors.toList());
+    }
+
+    private <T> List<T> gather(Function<Shard, T> query) {
+        List<CompletableFuture<T>> futures = this.shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), this.executor))
+                .collect(Collectors.toList());
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    private static boolean isMergeable(Class<?> type) {
+        return type.isPrimitive() || Number.class.isAssignableFrom(type) || type == Boolean.class
+                || Temporal.class.isAssignableFrom(type);
+    }
+
+    /** Orders like the database does, where null is smaller than any value. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Event> comparator(Sort sort) {
+        Comparator<Event> comparator = null;
+        for (Sort.Order order : sort) {
+            Method getter = BeanUtils.getPropertyDescriptor(Event.class, order.getProperty()).getReadMethod();
+            Comparator<Event> next = Comparator.comparing(event -> (Comparable) ReflectionUtils.invokeMethod(getter, event),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    private static class Cursor {
+
+        private final List<Event> events;
+        private int position;
+
+        Cursor(List<Event> events) {
+            this.events = events;
+        }
+
+        Event current() {
+            return this.events.get(this.position);
+        }
+
+        boolean advance() {
+            return ++this.position < this.events.size();
+        }
+    }
+
+    private static class Shard {
+
+        private final int index;
+        private final DataSource dataSource;
+        private final EntityManagerFactory entityManagerFactory;
+        private final JdbcTemplate jdbcTemplate;
+        private final EventRepository eventRepository;
+        private final EventChangeRepository eventChangeRepository;
+        private final TransactionTemplate transactionTemplate;
+
+        Shard(int index, DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+            this.index = index;
+            this.dataSource = dataSource;
+            this.entityManagerFactory = entityManagerFactory;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory));
+            this.eventRepository = repositoryFactory.getRepository(EventRepository.class);
+            this.eventChangeRepository = repositoryFactory.getRepository(EventChangeRepository.class);
+            this.transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        }
+
+        /**
+         * Restarts the id sequence at the next free id that belongs to this shard, unless it already only hands out
+         * such ids. Every node runs this on startup, so an aligned sequence is left alone, and a restart never goes
+         * below a value the sequence may already have handed out.
+         */
+        void alignSequence(int shardCount) {
+            long[] sequence = readSequence();
+            long increment = sequence[0];
+            long nextValue = sequence[1];
+            if (increment == shardCount && Math.floorMod(nextValue, shardCount) == this.index) {
+                return;
+            }
+            Integer maxId = this.jdbcTemplate.queryForObject("select max(id) from event", Integer.class);
+            long next = Math.max(maxId == null ? 1 : maxId + 1, nextValue);
+            next += Math.floorMod(this.index - next, shardCount);
+            this.jdbcTemplate.execute("alter sequence hibernate_sequence restart with " + next + " increment by " + shardCount);
+        }
+
+        /** Returns the increment of the id sequence and the next value it hands out. */
+        private long[] readSequence() {
+            String product = this.jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            String query = "H2".equals(product)
+                    ? "select increment, current_value + increment from information_schema.sequences where sequence_name = 'HIBERNATE_SEQUENCE'"
+                    : "select increment, next_not_cached_value from hibernate_sequence";
+            return this.jdbcTemplate.queryForObject(query, (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        }
+
+        void copyAccount(Account manager) {
+            if (manager == null) {
+                return;
+            }
+            this.jdbcTemplate.update("insert into account (id, email) select ?, ? where not exists (select 1 from account where id = ?)",
+                    manager.getId(), manager.getEmail(), manager.getId());
+        }
+    }
+}
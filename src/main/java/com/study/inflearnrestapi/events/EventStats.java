@@ -0,0 +1,491 @@
+package com.study.inflearnrestapi.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar in-memory copy of the event fields used by the admin reports. Every field is a primitive array indexed by
+ * row, and rows are kept sorted by id so that {@link EventChangedEvent}s can update a row in place. Deleted rows are
+ * only marked and get dropped on the next compaction or rebuild. Loading and aggregating run on the fork-join pool.
+ */
+@Component
+public class EventStats {
+
+    static final int PARALLEL_THRESHOLD = 16 * 1024;
+    private static final int BUCKETS = 1 << 16;
+    private static final byte DELETED = -1;
+    private static final int NO_MONTH = Integer.MIN_VALUE;
+    private static final EventStatus[] STATUSES = EventStatus.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private Columns columns = new Columns(0);
+    /** Changes seen while a rebuild is loading, or {@code null} when none is. */
+    private List<EventChangedEvent> pending;
+
+    @Autowired
+    EventService eventService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${my-app.events.stats-reconcile-interval-ms:300000}",
+            fixedDelayString = "${my-app.events.stats-reconcile-interval-ms:300000}")
+    public void rebuild() {
+        synchronized (this.rebuildLock) {
+            this.lock.writeLock().lock();
+            try {
+                this.pending = new ArrayList<>();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+            Columns newColumns = Columns.load(this.eventService.findStatsRows());
+            this.lock.writeLock().lock();
+            try {
+                this.columns = newColumns;
+                this.pending.forEach(this::apply);
+                this.pending = null;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Changes that arrive while {@link #rebuild()} loads are also replayed onto the new columns, since the load may
+     * have read the rows before they were committed. Upserts and deletes can be applied twice.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent changedEvent) {
+        this.lock.writeLock().lock();
+        try {
+            apply(changedEvent);
+            if (this.pending != null) {
+                this.pending.add(changedEvent);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(EventChangedEvent changedEvent) {
+        Event event = changedEvent.getEvent();
+        if (changedEvent.getType().isRemoval()) {
+            this.columns.delete(event.getId());
+        } else {
+            this.columns.upsert(event.getId(), event.getEventStatus(), event.getBasePrice(), event.getMaxPrice(),
+                    event.getLimitOfEnrollment(), event.getBeginEventDateTime());
+        }
+        if (this.columns.deleted > this.columns.size / 4) {
+            this.columns = this.columns.compact();
+        }
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.columns.size - this.columns.deleted;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param percentiles percentiles between 0 and 100 to report for {@code basePrice} and {@code maxPrice}
+     */
+    public EventStatsReport report(double[] percentiles) {
+        Aggregate aggregate;
+        EventStatsReport.Distribution basePrice;
+        EventStatsReport.Distribution maxPrice;
+        this.lock.readLock().lock();
+        try {
+            Columns columns = this.columns;
+            aggregate = ForkJoinPool.commonPool().invoke(new AggregateTask(columns, 0, columns.size));
+            basePrice = distribution(columns, columns.basePrice, aggregate.count, aggregate.basePrice, percentiles);
+            maxPrice = distribution(columns, columns.maxPrice, aggregate.count, aggregate.maxPrice, percentiles);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        Map<String, EventStatsReport.Group> byEventStatus = new LinkedHashMap<>();
+        for (EventStatus status : STATUSES) {
+            byEventStatus.put(status.name(), new EventStatsReport.Group(
+                    aggregate.statusCounts[status.ordinal()], aggregate.statusLimits[status.ordinal()]));
+        }
+        Map<String, EventStatsReport.Group> byBeginEventMonth = new TreeMap<>();
+        for (int i = 0; i < aggregate.monthCounts.length; i++) {
+            if (aggregate.monthCounts[i] > 0) {
+                int month = aggregate.firstMonth + i;
+                byBeginEventMonth.put(String.format("%04d-%02d", Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1),
+                        new EventStatsReport.Group(aggregate.monthCounts[i], aggregate.monthLimits[i]));
+            }
+        }
+
+        return new EventStatsReport(aggregate.count, aggregate.limitOfEnrollment, basePrice, maxPrice,
+                byEventStatus, byBeginEventMonth);
+    }
+
+    /**
+     * Selects the percentiles without sorting: one pass counts the values into at most {@link #BUCKETS} buckets
+     * between the column's min and max, and a second pass sorts only the values of the buckets holding a
+     * requested rank. When the values span fewer than {@link #BUCKETS} integers the first pass is already exact.
+     */
+    private static EventStatsReport.Distribution distribution(Columns columns, int[] column, int count, Summary summary,
+                                                              double[] percentiles) {
+        Map<String, Integer> values = new LinkedHashMap<>();
+        if (count == 0) {
+            for (double percentile : percentiles) {
+                values.put(label(percentile), null);
+            }
+            return new EventStatsReport.Distribution(null, null, null, values);
+        }
+
+        long min = summary.min;
+        long range = (long) summary.max - min;
+        int shift = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(range) - Integer.numberOfTrailingZeros(BUCKETS));
+        int[] histogram = new int[(int) (range >>> shift) + 1];
+        byte[] status = columns.status;
+        for (int row = 0; row < columns.size; row++) {
+            if (status[row] != DELETED) {
+                histogram[(int) ((column[row] - min) >>> shift)]++;
+            }
+        }
+
+        Map<Integer, int[]> bucketValues = new HashMap<>();
+        for (double percentile : percentiles) {
+            int rank = rank(count, percentile);
+            int bucket = 0;
+            int below = 0;
+            while (below + histogram[bucket] <= rank) {
+                below += histogram[bucket++];
+            }
+            if (shift == 0) {
+                values.put(label(percentile), (int) (min + bucket));
+                continue;
+            }
+            int[] sorted = bucketValues.get(bucket);
+            if (sorted == null) {
+                sorted = new int[histogram[bucket]];
+                int i = 0;
+                for (int row = 0; row < columns.size; row++) {
+                    if (status[row] != DELETED && (int) ((column[row] - min) >>> shift) == bucket) {
+                        sorted[i++] = column[row];
+                    }
+                }
+                Arrays.sort(sorted);
+                bucketValues.put(bucket, sorted);
+            }
+            values.put(label(percentile), sorted[rank - below]);
+        }
+        return new EventStatsReport.Distribution(summary.min, summary.max, (double) summary.sum / count, values);
+    }
+
+    private static String label(double percentile) {
+        return "p" + (percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile));
+    }
+
+    /**
+     * Nearest-rank index of {@code percentile} in a sorted array of {@code length} values.
+     */
+    static int rank(int length, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100 * length) - 1;
+        return Math.min(Math.max(rank, 0), length - 1);
+    }
+
+    static int month(LocalDateTime dateTime) {
+        return dateTime == null ? NO_MONTH : dateTime.getYear() * 12 + dateTime.getMonthValue() - 1;
+    }
+
+    private static byte status(EventStatus eventStatus) {
+        return (byte) (eventStatus == null ? EventStatus.DRAFT : eventStatus).ordinal();
+    }
+
+    static class Columns {
+        private int[] id;
+        private byte[] status;
+        private int[] basePrice;
+        private int[] maxPrice;
+        private int[] limitOfEnrollment;
+        private int[] beginEventMonth;
+        private int size;
+        private int deleted;
+
+        Columns(int capacity) {
+            this.id = new int[capacity];
+            this.status = new byte[capacity];
+            this.basePrice = new int[capacity];
+            this.maxPrice = new int[capacity];
+            this.limitOfEnrollment = new int[capacity];
+            this.beginEventMonth = new int[capacity];
+        }
+
+        /**
+         * @param rows rows of {@link EventService#findStatsRows()}, ordered by id
+         */
+        static Columns load(List<Object[]> rows) {
+            Columns columns = new Columns(rows.size());
+            ForkJoinPool.commonPool().invoke(new LoadTask(columns, rows, 0, rows.size()));
+            columns.size = rows.size();
+            return columns;
+        }
+
+        void upsert(int eventId, EventStatus eventStatus, int basePrice, int maxPrice, int limitOfEnrollment,
+                    LocalDateTime beginEventDateTime) {
+            int row = Arrays.binarySearch(this.id, 0, this.size, eventId);
+            if (row < 0) {
+                row = -row - 1;
+                insertAt(row);
+                this.id[row] = eventId;
+            } else if (this.status[row] == DELETED) {
+                this.deleted--;
+            }
+            set(row, status(eventStatus), basePrice, maxPrice, limitOfEnrollment, month(beginEventDateTime));
+        }
+
+        void delete(int eventId) {
+            int row = Arrays.binarySearch(this.id, 0, this.size, eventId);
+            if (row >= 0 && this.status[row] != DELETED) {
+                this.status[row] = DELETED;
+                this.deleted++;
+            }
+        }
+
+        Columns compact() {
+            Columns compacted = new Columns(this.size - this.deleted);
+            for (int row = 0; row < this.size; row++) {
+                if (this.status[row] != DELETED) {
+                    compacted.id[compacted.size] = this.id[row];
+                    compacted.set(compacted.size++, this.status[row], this.basePrice[row], this.maxPrice[row],
+                            this.limitOfEnrollment[row], this.beginEventMonth[row]);
+                }
+            }
+            return compacted;
+        }
+
+        private void set(int row, byte status, int basePrice, int maxPrice, int limitOfEnrollment, int beginEventMonth) {
+            this.status[row] = status;
+            this.basePrice[row] = basePrice;
+            this.maxPrice[row] = maxPrice;
+            this.limitOfEnrollment[row] = limitOfEnrollment;
+            this.beginEventMonth[row] = beginEventMonth;
+        }
+
+        private void insertAt(int row) {
+            if (this.size == this.id.length) {
+                int capacity = Math.max(16, this.size + (this.size >> 1));
+                this.id = Arrays.copyOf(this.id, capacity);
+                this.status = Arrays.copyOf(this.status, capacity);
+                this.basePrice = Arrays.copyOf(this.basePrice, capacity);
+                this.maxPrice = Arrays.copyOf(this.maxPrice, capacity);
+                this.limitOfEnrollment = Arrays.copyOf(this.limitOfEnrollment, capacity);
+                this.beginEventMonth = Arrays.copyOf(this.beginEventMonth, capacity);
+            }
+            int tail = this.size - row;
+            if (tail > 0) {
+                System.arraycopy(this.id, row, this.id, row + 1, tail);
+                System.arraycopy(this.status, row, this.status, row + 1, tail);
+                System.arraycopy(this.basePrice, row, this.basePrice, row + 1, tail);
+                System.arraycopy(this.maxPrice, row, this.maxPrice, row + 1, tail);
+                System.arraycopy(this.limitOfEnrollment, row, this.limitOfEnrollment, row + 1, tail);
+                System.arraycopy(this.beginEventMonth, row, this.beginEventMonth, row + 1, tail);
+            }
+            this.size++;
+        }
+    }
+
+    private static class LoadTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Columns columns;
+        private final List<Object[]> rows;
+        private final int from;
+        private final int to;
+
+        LoadTask(Columns columns, List<Object[]> rows, int from, int to) {
+            this.columns = columns;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > PARALLEL_THRESHOLD) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new LoadTask(this.columns, this.rows, this.from, middle),
+                        new LoadTask(this.columns, this.rows, middle, this.to));
+                return;
+            }
+            for (int row = this.from; row < this.to; row++) {
+                Object[] values = this.rows.get(row);
+                this.columns.id[row] = (Integer) values[0];
+                this.columns.set(row, status((EventStatus) values[1]), (Integer) values[2], (Integer) values[3],
+                        (Integer) values[4], month((LocalDateTime) values[5]));
+            }
+        }
+    }
+
+    private static class AggregateTask extends RecursiveTask<Aggregate> {
+        private static final long serialVersionUID = 1L;
+
+        private final Columns columns;
+        private final int from;
+        private final int to;
+
+        AggregateTask(Columns columns, int from, int to) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Aggregate compute() {
+            if (this.to - this.from > PARALLEL_THRESHOLD) {
+                int middle = (this.from + this.to) >>> 1;
+                AggregateTask left = new AggregateTask(this.columns, this.from, middle);
+                left.fork();
+                Aggregate right = new AggregateTask(this.columns, middle, this.to).compute();
+                return left.join().merge(right);
+            }
+
+            byte[] status = this.columns.status;
+            int[] limitOfEnrollment = this.columns.limitOfEnrollment;
+            int[] beginEventMonth = this.columns.beginEventMonth;
+            int minMonth = Integer.MAX_VALUE;
+            int maxMonth = Integer.MIN_VALUE;
+            for (int row = this.from; row < this.to; row++) {
+                int month = beginEventMonth[row];
+                if (month != NO_MONTH && status[row] != DELETED) {
+                    minMonth = Math.min(minMonth, month);
+                    maxMonth = Math.max(maxMonth, month);
+                }
+            }
+
+            Aggregate aggregate = new Aggregate(minMonth, maxMonth);
+            long[] monthCounts = aggregate.monthCounts;
+            long[] monthLimits = aggregate.monthLimits;
+            int count = 0;
+            long limitSum = 0;
+            for (int row = this.from; row < this.to; row++) {
+                byte s = status[row];
+                if (s == DELETED) {
+                    continue;
+                }
+                int limit = limitOfEnrollment[row];
+                count++;
+                limitSum += limit;
+                aggregate.statusCounts[s]++;
+                aggregate.statusLimits[s] += limit;
+                int month = beginEventMonth[row];
+                if (month != NO_MONTH) {
+                    monthCounts[month - minMonth]++;
+                    monthLimits[month - minMonth] += limit;
+                }
+            }
+            aggregate.count = count;
+            aggregate.limitOfEnrollment = limitSum;
+            aggregate.basePrice.add(this.columns.basePrice, status, this.from, this.to);
+            aggregate.maxPrice.add(this.columns.maxPrice, status, this.from, this.to);
+            return aggregate;
+        }
+    }
+
+    private static class Aggregate {
+        private int count;
+        private long limitOfEnrollment;
+        private final Summary basePrice = new Summary();
+        private final Summary maxPrice = new Summary();
+        private final long[] statusCounts = new long[STATUSES.length];
+        private final long[] statusLimits = new long[STATUSES.length];
+        private int firstMonth;
+        private long[] monthCounts;
+        private long[] monthLimits;
+
+        Aggregate(int minMonth, int maxMonth) {
+            int months = minMonth > maxMonth ? 0 : maxMonth - minMonth + 1;
+            this.firstMonth = minMonth;
+            this.monthCounts = new long[months];
+            this.monthLimits = new long[months];
+        }
+
+        Aggregate merge(Aggregate other) {
+            this.count += other.count;
+            this.limitOfEnrollment += other.limitOfEnrollment;
+            this.basePrice.merge(other.basePrice);
+            this.maxPrice.merge(other.maxPrice);
+            for (int i = 0; i < STATUSES.length; i++) {
+                this.statusCounts[i] += other.statusCounts[i];
+                this.statusLimits[i] += other.statusLimits[i];
+            }
+            if (other.monthCounts.length == 0) {
+                return this;
+            }
+            if (this.monthCounts.length == 0) {
+                this.firstMonth = other.firstMonth;
+                this.monthCounts = other.monthCounts;
+                this.monthLimits = other.monthLimits;
+                return this;
+            }
+            int firstMonth = Math.min(this.firstMonth, other.firstMonth);
+            int lastMonth = Math.max(this.firstMonth + this.monthCounts.length, other.firstMonth + other.monthCounts.length);
+            long[] monthCounts = new long[lastMonth - firstMonth];
+            long[] monthLimits = new long[lastMonth - firstMonth];
+            for (Aggregate aggregate : new Aggregate[]{this, other}) {
+                int offset = aggregate.firstMonth - firstMonth;
+                for (int i = 0; i < aggregate.monthCounts.length; i++) {
+                    monthCounts[offset + i] += aggregate.monthCounts[i];
+                    monthLimits[offset + i] += aggregate.monthLimits[i];
+                }
+            }
+            this.firstMonth = firstMonth;
+            this.monthCounts = monthCounts;
+            this.monthLimits = monthLimits;
+            return this;
+        }
+    }
+
+    private static class Summary {
+        private long sum;
+        private int min = Integer.MAX_VALUE;
+        private int max = Integer.MIN_VALUE;
+
+        void add(int[] column, byte[] status, int from, int to) {
+            long sum = 0;
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int row = from; row < to; row++) {
+                if (status[row] != DELETED) {
+                    int value = column[row];
+                    sum += value;
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            this.sum += sum;
+            this.min = Math.min(this.min, min);
+            this.max = Math.max(this.max, max);
+        }
+
+        void merge(Summary other) {
+            this.sum += other.sum;
+            this.min = Math.min(this.min, other.min);
+            this.max = Math.max(this.max, other.max);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.study.inflearnrestapi.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+@RequestMapping(value = "/api/admin/event-stats", produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+@Controller
+public class EventStatsController {
+
+    @Autowired
+    EventStats eventStats;
+
+    @GetMapping
+    public ResponseEntity eventStats(@RequestParam(defaultValue = "50,90,99") double[] percentiles) {
+        for (double percentile : percentiles) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        EventStatsReport report = this.eventStats.report(percentiles);
+        report.add(linkTo(EventStatsController.class).withSelfRel());
+        report.add(Link.of("/docs/index.html#resources-admin-event-stats").withRel("profile"));
+        return ResponseEntity.ok(report);
+    }
+}
@@ -0,0 +1,32 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.Map;
+
+@Getter @AllArgsConstructor
+public class EventStatsReport extends RepresentationModel<EventStatsReport> {
+
+    private final int count;
+    private final long limitOfEnrollment;
+    private final Distribution basePrice;
+    private final Distribution maxPrice;
+    private final Map<String, Group> byEventStatus;
+    private final Map<String, Group> byBeginEventMonth;
+
+    @Getter @AllArgsConstructor
+    public static class Distribution {
+        private final Integer min;
+        private final Integer max;
+        private final Double mean;
+        private final Map<String, Integer> percentiles;
+    }
+
+    @Getter @AllArgsConstructor
+    public static class Group {
+        private final long count;
+        private final long limitOfEnrollment;
+    }
+}
@@ -0,0 +1,32 @@
+package com.study.inflearnrestapi.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+
+@Controller
+public class EventStreamController {
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    EventStreamHub eventStreamHub;
+
+    @GetMapping(value = "/api/events/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvent(@PathVariable Integer id) {
+
+        Optional<Event> optionalEvent = this.eventService.findEvent(id);
+        if (optionalEvent.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(this.eventStreamHub.subscribe(optionalEvent.get()));
+    }
+}
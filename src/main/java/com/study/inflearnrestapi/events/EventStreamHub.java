@@ -0,0 +1,273 @@
+package com.study.inflearnrestapi.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fans out event status changes to the SSE subscribers of each event. A change is serialized once and offered to
+ * every subscriber's bounded buffer; a small sender pool drains the buffers, and a subscriber whose buffer is full,
+ * or whose send has been blocked for longer than {@code send-timeout-ms}, is disconnected instead of holding up the
+ * others.
+ * <p>
+ * An emitter's {@code send} and {@code complete} share one monitor, so completing a subscriber whose send is stuck
+ * would block until that send returns. Offering and the watchdog therefore only mark the subscriber as evicted; the
+ * emitter is always completed by a sender thread.
+ */
+@Component
+public class EventStreamHub {
+
+    static final String STATUS_EVENT = "event-status";
+    static final String DELETED_EVENT = "event-deleted";
+    private static final Message HEARTBEAT = new Message(null, null);
+
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private ExecutorService senders;
+    private ScheduledExecutorService watchdog;
+
+    @Autowired
+    EventStreamProperties properties;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @PostConstruct
+    public void start() {
+        this.senders = Executors.newFixedThreadPool(this.properties.getSenderThreads(), r -> {
+            Thread thread = new Thread(r, "event-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "event-stream-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(10, this.properties.getSendTimeoutMs() / 2);
+        this.watchdog.scheduleWithFixedDelay(this::evictStalled, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.watchdog.shutdownNow();
+        this.subscribers.values().forEach(s -> s.forEach(Subscriber::close));
+        this.senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe(Event event) {
+        Subscriber subscriber = new Subscriber(event.getId(), new SseEmitter(this.properties.getTimeoutMs()),
+                this.properties.getBufferSize());
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(e -> unsubscribe(subscriber));
+
+        this.subscribers.computeIfAbsent(event.getId(), id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        offer(subscriber, new Message(STATUS_EVENT, serialize(event)));
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent changedEvent) {
+        Event event = changedEvent.getEvent();
+        Set<Subscriber> eventSubscribers = this.subscribers.get(event.getId());
+        if (eventSubscribers == null || eventSubscribers.isEmpty()
+                || changedEvent.getType() == EventChangedEvent.Type.ARCHIVED) {
+            return;
+        }
+
+        Message message = changedEvent.getType() == EventChangedEvent.Type.DELETED
+                ? new Message(DELETED_EVENT, "{\"id\":" + event.getId() + "}")
+                : new Message(STATUS_EVENT, serialize(event));
+        eventSubscribers.forEach(s -> offer(s, message));
+    }
+
+    @Scheduled(fixedDelayString = "${my-app.events.stream.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        this.subscribers.values().forEach(s -> s.forEach(subscriber -> offer(subscriber, HEARTBEAT)));
+    }
+
+    private void offer(Subscriber subscriber, Message message) {
+        if (subscriber.isEvicted()) {
+            return;
+        }
+        if (isStalled(subscriber)) {
+            evict(subscriber, stalled());
+            return;
+        }
+        if (!subscriber.buffer.offer(message)) {
+            evict(subscriber, null);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void evictStalled() {
+        this.subscribers.values().forEach(s -> s.forEach(subscriber -> {
+            if (isStalled(subscriber)) {
+                evict(subscriber, stalled());
+            }
+        }));
+    }
+
+    private boolean isStalled(Subscriber subscriber) {
+        long sendStartedAt = subscriber.sendStartedAt;
+        return sendStartedAt != 0
+                && System.nanoTime() - sendStartedAt > TimeUnit.MILLISECONDS.toNanos(this.properties.getSendTimeoutMs());
+    }
+
+    private TimeoutException stalled() {
+        return new TimeoutException("Sending to the subscriber took longer than " + this.properties.getSendTimeoutMs() + "ms");
+    }
+
+    /**
+     * Stops delivering to the subscriber without touching its emitter, which a blocked send may be holding; the
+     * sender thread completes it (with {@code cause}, if any) once it is free.
+     */
+    private void evict(Subscriber subscriber, Throwable cause) {
+        if (!subscriber.eviction.compareAndSet(null, Optional.ofNullable(cause))) {
+            return;
+        }
+        subscriber.buffer.clear();
+        unsubscribe(subscriber);
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            this.senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Message message;
+            while (!subscriber.isEvicted() && (message = subscriber.buffer.poll()) != null) {
+                try {
+                    subscriber.sendStartedAt = System.nanoTime();
+                    if (message == HEARTBEAT) {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        subscriber.emitter.send(SseEmitter.event().name(message.name).data(message.data, MediaType.APPLICATION_JSON));
+                    }
+                    if (DELETED_EVENT.equals(message.name)) {
+                        subscriber.close();
+                    }
+                } catch (IOException e) {
+                    subscriber.buffer.clear();
+                    subscriber.closeWithError(e);
+                    unsubscribe(subscriber);
+                } catch (IllegalStateException e) {
+                    // already completed
+                    subscriber.buffer.clear();
+                    unsubscribe(subscriber);
+                } finally {
+                    subscriber.sendStartedAt = 0;
+                }
+            }
+            if (subscriber.isEvicted() && subscriber.closed.compareAndSet(false, true)) {
+                subscriber.buffer.clear();
+                Optional<Throwable> cause = subscriber.eviction.get();
+                if (cause.isPresent()) {
+                    subscriber.closeWithError(cause.get());
+                } else {
+                    subscriber.close();
+                }
+            }
+            subscriber.draining.set(false);
+        } while (subscriber.hasWork() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        this.subscribers.computeIfPresent(subscriber.eventId, (id, set) -> set.remove(subscriber) && set.isEmpty() ? null : set);
+    }
+
+    private String serialize(Event event) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", event.getId());
+        status.put("eventStatus", event.getEventStatus());
+        status.put("limitOfEnrollment", event.getLimitOfEnrollment());
+        status.put("beginEnrollmentDateTime", event.getBeginEnrollmentDateTime());
+        status.put("closeEnrollmentDateTime", event.getCloseEnrollmentDateTime());
+        try {
+            return this.objectMapper.writeValueAsString(status);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class Message {
+        private final String name;
+        private final String data;
+
+        Message(String name, String data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private static class Subscriber {
+        private final Integer eventId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        /** Set once when the subscriber is evicted, holding the error to complete its emitter with, if any. */
+        private final AtomicReference<Optional<Throwable>> eviction = new AtomicReference<>();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        /** {@link System#nanoTime()} when the send in progress started, or 0 between sends. */
+        private volatile long sendStartedAt;
+
+        Subscriber(Integer eventId, SseEmitter emitter, int bufferSize) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        boolean isEvicted() {
+            return this.eviction.get() != null;
+        }
+
+        boolean hasWork() {
+            return isEvicted() ? !this.closed.get() : !this.buffer.isEmpty();
+        }
+
+        void close() {
+            try {
+                this.emitter.complete();
+            } catch (IllegalStateException e) {
+                // already completed
+            }
+        }
+
+        void closeWithError(Throwable cause) {
+            try {
+                this.emitter.completeWithError(cause);
+            } catch (IllegalStateException e) {
+                // already completed
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "my-app.events.stream")
+@Component
+public class EventStreamProperties {
+
+    private int bufferSize = 16;
+
+    private long timeoutMs = 30 * 60 * 1000;
+
+    private int senderThreads = 2;
+
+    private long sendTimeoutMs = 5_000;
+}
@@ -0,0 +1,207 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.accounts.Account;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Published events that have not ended yet, ordered by {@code beginEventDateTime} and id in a skip list, so the next
+ * {@code k} events are read in O(log n + k) without touching the database. The index holds its own copies of the
+ * events; a second skip list ordered by {@code endEventDateTime} lets {@link #prune()} drop ended events cheaply.
+ * Writes on this node are applied when they commit, and {@link #follow()} picks up the published outbox rows, which
+ * also covers writes made on other nodes.
+ */
+@Component
+public class EventUpcomingIndex {
+
+    static final Set<EventStatus> STATUSES = EnumSet.of(EventStatus.PUBLISHED, EventStatus.BEGAN_ENROLLMENT);
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::getDateTime).thenComparingInt(Key::getId);
+
+    private final ConcurrentSkipListMap<Key, Event> byBegin = new ConcurrentSkipListMap<>(KEY_ORDER);
+    private final ConcurrentSkipListMap<Key, Event> byEnd = new ConcurrentSkipListMap<>(KEY_ORDER);
+    private final Map<Integer, Event> byId = new ConcurrentHashMap<>();
+    private final Object followLock = new Object();
+    private long sequence;
+
+    Clock clock = Clock.systemDefaultZone();
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    EventChangeRepository eventChangeRepository;
+
+    @Autowired
+    EventOutboxProperties outboxProperties;
+
+    /**
+     * Reloads the index. The outbox sequence is read before the events, so changes that race with the load are
+     * applied again by {@link #follow()}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this.followLock) {
+            Long maxSequence = this.eventChangeRepository.findMaxSequence();
+            List<Event> events = this.eventService.findEventsNotEnded(STATUSES, LocalDateTime.now(this.clock));
+            synchronized (this) {
+                this.byBegin.clear();
+                this.byEnd.clear();
+                this.byId.clear();
+                events.forEach(this::put);
+            }
+            this.sequence = maxSequence == null ? 0 : maxSequence;
+        }
+    }
+
+    /**
+     * Re-reads the events named by the outbox changes published since the last applied sequence. Rebuilds the index
+     * when the outbox has already been cleaned up past that sequence.
+     */
+    @Scheduled(initialDelayString = "${my-app.events.upcoming-follow-interval-ms:1000}",
+            fixedDelayString = "${my-app.events.upcoming-follow-interval-ms:1000}")
+    public void follow() {
+        synchronized (this.followLock) {
+            List<EventChange> changes;
+            do {
+                changes = this.eventChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(
+                        this.sequence, PageRequest.of(0, this.outboxProperties.getBatchSize()));
+                if (changes.isEmpty()) {
+                    return;
+                }
+                if (changes.get(0).getSequence() > this.sequence + 1) {
+                    rebuild();
+                    return;
+                }
+
+                Set<Integer> ids = changes.stream().map(EventChange::getEventId).collect(Collectors.toCollection(LinkedHashSet::new));
+                Map<Integer, Event> events = this.eventService.findEventsById(ids).stream()
+                        .collect(Collectors.toMap(Event::getId, Function.identity()));
+                synchronized (this) {
+                    for (Integer id : ids) {
+                        Event event = events.get(id);
+                        if (event != null && isUpcoming(event)) {
+                            put(event);
+                        } else {
+                            remove(id);
+                        }
+                    }
+                }
+                this.sequence = changes.get(changes.size() - 1).getSequence();
+            } while (changes.size() == this.outboxProperties.getBatchSize());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEventChanged(EventChangedEvent changedEvent) {
+        Event event = changedEvent.getEvent();
+        if (changedEvent.getType().isRemoval() || !isUpcoming(event)) {
+            remove(event.getId());
+        } else {
+            put(event);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${my-app.events.upcoming-prune-interval-ms:60000}",
+            fixedDelayString = "${my-app.events.upcoming-prune-interval-ms:60000}")
+    public synchronized void prune() {
+        Key now = new Key(LocalDateTime.now(this.clock), Integer.MAX_VALUE);
+        for (Event event : this.byEnd.headMap(now, true).values()) {
+            remove(event.getId());
+        }
+    }
+
+    /**
+     * Events that have not ended at the time of the call, earliest {@code beginEventDateTime} first. Ended events
+     * that have not been pruned yet are skipped.
+     */
+    public List<Event> upcoming(int size) {
+        LocalDateTime now = LocalDateTime.now(this.clock);
+        List<Event> events = new ArrayList<>(Math.min(size, this.byId.size()));
+        for (Event event : this.byBegin.values()) {
+            if (events.size() == size) {
+                break;
+            }
+            if (event.getEndEventDateTime().isAfter(now)) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    public int size() {
+        return this.byId.size();
+    }
+
+    private boolean isUpcoming(Event event) {
+        return STATUSES.contains(event.getEventStatus())
+                && event.getBeginEventDateTime() != null
+                && event.getEndEventDateTime() != null
+                && event.getEndEventDateTime().isAfter(LocalDateTime.now(this.clock));
+    }
+
+    private void put(Event event) {
+        remove(event.getId());
+        Event copy = copyOf(event);
+        this.byId.put(copy.getId(), copy);
+        this.byBegin.put(new Key(copy.getBeginEventDateTime(), copy.getId()), copy);
+        this.byEnd.put(new Key(copy.getEndEventDateTime(), copy.getId()), copy);
+    }
+
+    private void remove(Integer id) {
+        Event event = this.byId.remove(id);
+        if (event != null) {
+            this.byBegin.remove(new Key(event.getBeginEventDateTime(), id));
+            this.byEnd.remove(new Key(event.getEndEventDateTime(), id));
+        }
+    }
+
+    static Event copyOf(Event event) {
+        Account manager = event.getManager();
+        return Event.builder()
+                .id(event.getId())
+                .name(event.getName())
+                .description(event.getDescription())
+                .beginEnrollmentDateTime(event.getBeginEnrollmentDateTime())
+                .closeEnrollmentDateTime(event.getCloseEnrollmentDateTime())
+                .beginEventDateTime(event.getBeginEventDateTime())
+                .endEventDateTime(event.getEndEventDateTime())
+                .location(event.getLocation())
+                .latitude(event.getLatitude())
+                .longitude(event.getLongitude())
+                .basePrice(event.getBasePrice())
+                .maxPrice(event.getMaxPrice())
+                .limitOfEnrollment(event.getLimitOfEnrollment())
+                .offline(event.isOffline())
+                .free(event.isFree())
+                .eventStatus(event.getEventStatus())
+                .manager(manager == null ? null : Account.builder().id(manager.getId()).build())
+                .build();
+    }
+
+    @Getter @AllArgsConstructor
+    private static class Key {
+        private final LocalDateTime dateTime;
+        private final int id;
+    }
+}
@@ -0,0 +1,20 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter @Setter
+@ConfigurationProperties(prefix = "my-app.events.async-update")
+@Component
+public class EventUpdateProperties {
+
+    private int queueCapacity = 10_000;
+
+    private int batchSize = 100;
+
+    private long flushIntervalMs = 50;
+
+    private int maxTickets = 100_000;
+}
@@ -0,0 +1,168 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind queue for {@code Prefer: respond-async} updates. Updates to the same event that arrive before
+ * it is flushed are coalesced into one write, and queued events are written in batched transactions.
+ */
+@Slf4j
+@Component
+public class EventUpdateQueue {
+
+    private final Map<Integer, PendingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+    private final Map<String, EventUpdateTicket> tickets = new ConcurrentHashMap<>();
+    private final Queue<String> ticketOrder = new ConcurrentLinkedQueue<>();
+    private BlockingQueue<Integer> queue;
+    private ScheduledExecutorService flusher;
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    EventUpdateProperties properties;
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    ModelMapper modelMapper;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    public void start() {
+        this.queue = new ArrayBlockingQueue<>(this.properties.getQueueCapacity());
+        this.transactionTemplate = new TransactionTemplate(this.transactionManager);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "event-update-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushSafely, this.properties.getFlushIntervalMs(),
+                this.properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.flusher.shutdown();
+        flushSafely();
+    }
+
+    /**
+     * @return the ticket tracking the update, or empty if the queue is full and the caller should back off
+     */
+    public Optional<EventUpdateTicket> submit(Integer eventId, EventDto eventDto) {
+        EventUpdateTicket ticket = new EventUpdateTicket(UUID.randomUUID().toString(), eventId);
+        boolean[] accepted = {true};
+        this.pendingUpdates.compute(eventId, (id, pending) -> {
+            if (pending != null) {
+                pending.eventDto = eventDto;
+                pending.tickets.add(ticket);
+                return pending;
+            }
+            if (!this.queue.offer(id)) {
+                accepted[0] = false;
+                return null;
+            }
+            return new PendingUpdate(eventDto, ticket);
+        });
+
+        if (!accepted[0]) {
+            return Optional.empty();
+        }
+        track(ticket);
+        return Optional.of(ticket);
+    }
+
+    public Optional<EventUpdateTicket> getTicket(String ticketId) {
+        return Optional.ofNullable(this.tickets.get(ticketId));
+    }
+
+    public void flush() {
+        List<Integer> eventIds = new ArrayList<>(this.properties.getBatchSize());
+        while (this.queue.drainTo(eventIds, this.properties.getBatchSize()) > 0) {
+            Map<Integer, PendingUpdate> batch = eventIds.stream()
+                    .collect(Collectors.toMap(Function.identity(), this.pendingUpdates::remove));
+
+            Set<Integer> found = new HashSet<>();
+            EventUpdateTicket.Status status = EventUpdateTicket.Status.APPLIED;
+            try {
+                this.transactionTemplate.executeWithoutResult(tx -> {
+                    List<Event> events = this.eventService.findEventsById(batch.keySet());
+                    events.forEach(event -> this.modelMapper.map(batch.get(event.getId()).eventDto, event));
+                    this.eventService.updateEvents(events);
+                    events.forEach(event -> found.add(event.getId()));
+                });
+            } catch (RuntimeException e) {
+                log.error("Failed to apply {} queued event updates", batch.size(), e);
+                status = EventUpdateTicket.Status.FAILED;
+            }
+
+            for (Map.Entry<Integer, PendingUpdate> entry : batch.entrySet()) {
+                // An event deleted or archived after its update was queued has nothing to apply it to
+                EventUpdateTicket.Status ticketStatus = status == EventUpdateTicket.Status.APPLIED && !found.contains(entry.getKey())
+                        ? EventUpdateTicket.Status.NOT_FOUND
+                        : status;
+                for (EventUpdateTicket ticket : entry.getValue().tickets) {
+                    ticket.complete(ticketStatus);
+                }
+            }
+            eventIds.clear();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Event update flush failed", e);
+        }
+    }
+
+    private void track(EventUpdateTicket ticket) {
+        this.tickets.put(ticket.getId(), ticket);
+        this.ticketOrder.add(ticket.getId());
+        while (this.tickets.size() > this.properties.getMaxTickets()) {
+            String oldest = this.ticketOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            this.tickets.remove(oldest);
+        }
+    }
+
+    private static class PendingUpdate {
+        private volatile EventDto eventDto;
+        private final List<EventUpdateTicket> tickets = new ArrayList<>(1);
+
+        PendingUpdate(EventDto eventDto, EventUpdateTicket ticket) {
+            this.eventDto = eventDto;
+            this.tickets.add(ticket);
+        }
+    }
+}
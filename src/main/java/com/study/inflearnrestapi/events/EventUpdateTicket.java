@@ -0,0 +1,37 @@
+package com.study.inflearnrestapi.events;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+
+@Getter
+public class EventUpdateTicket {
+
+    public enum Status {
+        PENDING, APPLIED, NOT_FOUND, FAILED
+    }
+
+    private final String id;
+    private final Integer eventId;
+    private volatile Status status = Status.PENDING;
+    @Getter(AccessLevel.NONE)
+    private final CompletableFuture<Status> completion = new CompletableFuture<>();
+
+    public EventUpdateTicket(String id, Integer eventId) {
+        this.id = id;
+        this.eventId = eventId;
+    }
+
+    void complete(Status status) {
+        this.status = status;
+        this.completion.complete(status);
+    }
+
+    /**
+     * Completes with the final status once the update has been flushed.
+     */
+    CompletableFuture<Status> completion() {
+        return this.completion;
+    }
+}
@@ -2,20 +2,115 @@ package com.study.inflearnrestapi.events;
 
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
 
+import javax.validation.Validator;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
+/**
+ * Checks the {@link EventDto} constraints ({@code @NotEmpty}, {@code @NotNull}, {@code @Min(0)}) together with the
+ * price, date and coordinate rules. {@link #isValid(EventDto)} is a single allocation-free pass over primitive values;
+ * the {@link Errors} reporting path only runs once that pass has failed, and reports the constraints through Bean
+ * Validation so that their codes and localized messages stay the standard ones.
+ */
 @Component
 public class EventValidator {
 
+    private final SpringValidatorAdapter validator;
+
+    public EventValidator(Validator validator) {
+        this.validator = new SpringValidatorAdapter(validator);
+    }
+
     public void validate(EventDto eventDto, Errors errors) {
-        if (eventDto.getBasePrice() > eventDto.getMaxPrice() && eventDto.getMaxPrice() != 0) {
+        if (isValid(eventDto)) {
+            return;
+        }
+
+        this.validator.validate(eventDto, errors);
+        if (errors.hasErrors()) {
+            return;
+        }
+
+        if (!validPrices(eventDto.getBasePrice(), eventDto.getMaxPrice())) {
             errors.reject("wrongPrices", "Values to prices are wrong");
         }
 
-        LocalDateTime endEventDateTime = eventDto.getEndEventDateTime();
-        if (endEventDateTime.isBefore(eventDto.getBeginEventDateTime()) || endEventDateTime.isBefore(eventDto.getCloseEnrollmentDateTime()) || endEventDateTime.isBefore(eventDto.getBeginEnrollmentDateTime())) {
+        if (!validEndEventDateTime(eventDto)) {
             errors.rejectValue("endEventDateTime", "wrongValue", "endEventDateTime is wrongValue");
         }
+
+        Double latitude = eventDto.getLatitude();
+        Double longitude = eventDto.getLongitude();
+        if ((latitude == null) != (longitude == null)) {
+            errors.reject("wrongCoordinates", "latitude and longitude must be given together");
+        }
+        if (latitude != null && !validLatitude(latitude)) {
+            errors.rejectValue("latitude", "wrongValue", "latitude is wrongValue");
+        }
+        if (longitude != null && !validLongitude(longitude)) {
+            errors.rejectValue("longitude", "wrongValue", "longitude is wrongValue");
+        }
+    }
+
+    public boolean isValid(EventDto eventDto) {
+        String name = eventDto.getName();
+        String description = eventDto.getDescription();
+        if (name == null || name.isEmpty() || description == null || description.isEmpty()) {
+            return false;
+        }
+
+        int basePrice = eventDto.getBasePrice();
+        int maxPrice = eventDto.getMaxPrice();
+        if (basePrice < 0 || maxPrice < 0 || eventDto.getLimitOfEnrollment() < 0 || !validPrices(basePrice, maxPrice)) {
+            return false;
+        }
+
+        if (eventDto.getBeginEnrollmentDateTime() == null || eventDto.getCloseEnrollmentDateTime() == null
+                || eventDto.getBeginEventDateTime() == null || eventDto.getEndEventDateTime() == null
+                || !validEndEventDateTime(eventDto)) {
+            return false;
+        }
+
+        Double latitude = eventDto.getLatitude();
+        Double longitude = eventDto.getLongitude();
+        if (latitude == null || longitude == null) {
+            return latitude == null && longitude == null;
+        }
+        return validLatitude(latitude) && validLongitude(longitude);
+    }
+
+    private static boolean validPrices(int basePrice, int maxPrice) {
+        return basePrice <= maxPrice || maxPrice == 0;
+    }
+
+    private static boolean validEndEventDateTime(EventDto eventDto) {
+        LocalDateTime end = eventDto.getEndEventDateTime();
+        long endSecond = end.toEpochSecond(ZoneOffset.UTC);
+        int endNano = end.getNano();
+        return !before(endSecond, endNano, eventDto.getBeginEventDateTime())
+                && !before(endSecond, endNano, eventDto.getCloseEnrollmentDateTime())
+                && !before(endSecond, endNano, eventDto.getBeginEnrollmentDateTime());
+    }
+
+    private static boolean before(long second, int nano, LocalDateTime other) {
+        long otherSecond = other.toEpochSecond(ZoneOffset.UTC);
+        return second < otherSecond || (second == otherSecond && nano < other.getNano());
+    }
+
+    static boolean validLatitude(double latitude) {
+        return latitude >= -90 && latitude <= 90;
+    }
+
+    static boolean validLongitude(double longitude) {
+        return longitude >= -180 && longitude <= 180;
+    }
+
+    /**
+     * The localized Bean Validation message for {@code value} breaking a constraint of the {@link EventDto} field.
+     */
+    String message(String field, Object value) {
+        return this.validator.validateValue(EventDto.class, field, value).iterator().next().getMessage();
     }
 }
@@ -0,0 +1,48 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.common.RateLimitProperties;
+import com.study.inflearnrestapi.common.RateLimitResponses;
+import com.study.inflearnrestapi.common.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Limits event writes per principal, the same user {@code @CurrentUser} resolves in {@link EventController}.
+ */
+@Component
+public class EventWriteRateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+    private final Counter rejections;
+
+    public EventWriteRateLimitInterceptor(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rateLimiter = new RateLimiter(properties.getWritePermitsPerSecond(), properties.getWriteBurst(), properties.getMaxKeys());
+        this.rejections = RateLimitResponses.rejections(meterRegistry, "principal");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!this.properties.isEnabled() || "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String key = authentication != null ? "principal:" + authentication.getName() : "address:" + request.getRemoteAddr();
+
+        long retryAfterNanos = this.rateLimiter.tryAcquire(key);
+        if (retryAfterNanos > 0) {
+            this.rejections.increment();
+            RateLimitResponses.tooManyRequests(response, retryAfterNanos);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,25 @@
+package com.study.inflearnrestapi.events;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import org.springframework.validation.Errors;
+
+/**
+ * Thrown by {@link EventDtoDeserializer} on the first error it finds in a request body. The errors are reported
+ * the same way as the ones from {@link EventValidator}.
+ */
+public class InvalidEventDtoException extends JsonMappingException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Errors errors;
+
+    public InvalidEventDtoException(JsonParser parser, Errors errors) {
+        super(parser, errors.getAllErrors().get(0).getDefaultMessage());
+        this.errors = errors;
+    }
+
+    public Errors getErrors() {
+        return errors;
+    }
+}
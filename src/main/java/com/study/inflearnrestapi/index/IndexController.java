@@ -1,19 +1,21 @@
 package com.study.inflearnrestapi.index;
 
-import com.study.inflearnrestapi.events.EventController;
+import com.study.inflearnrestapi.common.ApiLinks;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
 @RestController
 public class IndexController {
 
+    @Autowired
+    ApiLinks apiLinks;
+
     @GetMapping("/api")
     public RepresentationModel index() {
         var index = new RepresentationModel();
-        index.add(linkTo(EventController.class).withRel("events"));
+        index.add(apiLinks.events("events"));
         return index;
     }
 }
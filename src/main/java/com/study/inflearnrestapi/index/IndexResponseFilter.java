@@ -0,0 +1,126 @@
+package com.study.inflearnrestapi.index;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.inflearnrestapi.common.ApiLinks;
+import com.study.inflearnrestapi.common.PrecompressedBody;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves {@code GET /api} and {@code /docs/index.html} from bodies that are serialized and compressed once,
+ * ahead of Spring Security and the DispatcherServlet. The API root is built once per host because its links are absolute.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Component
+public class IndexResponseFilter extends OncePerRequestFilter {
+
+    static final String CACHE_CONTROL = "public, max-age=86400";
+    private static final String DOCS_LOCATION = "static/docs/index.html";
+    private static final int MAX_CACHED_ROOTS = 256;
+
+    private final Map<String, PrecompressedBody> roots = new ConcurrentHashMap<>();
+    private PrecompressedBody docs;
+
+    @Autowired
+    ApiLinks apiLinks;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @PostConstruct
+    public void loadDocs() {
+        ClassPathResource resource = new ClassPathResource(DOCS_LOCATION);
+        if (resource.exists()) {
+            try (InputStream in = resource.getInputStream()) {
+                this.docs = new PrecompressedBody("text/html;charset=UTF-8", StreamUtils.copyToByteArray(in));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(isRoot(path) || (this.docs != null && path.equals("/docs/index.html")));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!isRoot(path)) {
+            this.docs.write(request, response, CACHE_CONTROL);
+            return;
+        }
+
+        if (!acceptsHalJson(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = this.apiLinks.cacheKey(request);
+        PrecompressedBody root = this.roots.get(key);
+        if (root == null) {
+            if (this.roots.size() >= MAX_CACHED_ROOTS) {
+                this.roots.clear();
+            }
+            root = buildRoot(request);
+            this.roots.put(key, root);
+        }
+        root.write(request, response, CACHE_CONTROL);
+    }
+
+    private PrecompressedBody buildRoot(HttpServletRequest request) throws IOException {
+        RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            Map<String, Object> links = Map.of("events", Map.of("href", this.apiLinks.events("events").getHref()));
+            return new PrecompressedBody(MediaTypes.HAL_JSON_VALUE, this.objectMapper.writeValueAsBytes(Map.of("_links", links)));
+        } finally {
+            RequestContextHolder.setRequestAttributes(previous);
+        }
+    }
+
+    private static boolean isRoot(String path) {
+        return path.equals("/api") || path.equals("/api/");
+    }
+
+    private static boolean acceptsHalJson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return true;
+        }
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            return mediaTypes.stream().anyMatch(m -> m.isCompatibleWith(MediaTypes.HAL_JSON));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.study.inflearnrestapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.study.inflearnrestapi.common.AppProperties;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ActiveProfilesResolver;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives a mix of create/update/get/list requests against the application on a real port and writes throughput,
+ * latency percentiles and error rates per operation as JSON. Run it with {@code mvn test -Pload-test}; the system
+ * properties below change the load, and {@code -Dload.baseline=<report.json>} fails the run when an operation's
+ * throughput, p99 or error rate got worse than the stored report by more than {@code load.tolerance}.
+ * {@code mvn test -Pload-test-compare} runs it twice with 64 clients, first with the default settings and then with
+ * the {@code high-concurrency} profile, and fails if the second run is worse than the first.
+ *
+ * <ul>
+ *     <li>{@code load.profiles} - Spring profiles of the application under load, default {@code test}</li>
+ *     <li>{@code load.concurrency} - client threads, default 16</li>
+ *     <li>{@code load.warmup-seconds}, {@code load.duration-seconds} - default 5 and 20</li>
+ *     <li>{@code load.mix} - operation weights, default {@code create:10,update:10,get:50,list:30}</li>
+ *     <li>{@code load.report} - where the report is written, default {@code target/load-test/report.json}</li>
+ * </ul>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "my-app.rate-limit.token-permits-per-second=1000000",
+        "my-app.rate-limit.write-permits-per-second=1000000",
+        "my-app.rate-limit.write-burst=1000000",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+@ActiveProfiles(resolver = LoadRun.ProfilesResolver.class)
+public class LoadRun {
+
+    private static final String[] OPERATIONS = {"create", "update", "get", "list"};
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    AppProperties appProperties;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    public void mixedTraffic() throws Exception {
+        int concurrency = Integer.getInteger("load.concurrency", 16);
+        int warmupSeconds = Integer.getInteger("load.warmup-seconds", 5);
+        int durationSeconds = Integer.getInteger("load.duration-seconds", 20);
+        Map<String, Integer> mix = mix(System.getProperty("load.mix", "create:10,update:10,get:50,list:30"));
+        File reportFile = new File(System.getProperty("load.report", "target/load-test/report.json"));
+        double tolerance = Double.parseDouble(System.getProperty("load.tolerance", "0.2"));
+
+        String[] tokens = {
+                accessToken(appProperties.getAdminUsername(), appProperties.getAdminPassword()),
+                accessToken(appProperties.getUserUsername(), appProperties.getUserPassword())
+        };
+
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long measureTo = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        CountDownLatch ready = new CountDownLatch(concurrency);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<Worker>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(tokens[i % tokens.length], mix, measureFrom, measureTo, ready);
+            futures.add(executor.submit(() -> {
+                worker.run();
+                return worker;
+            }));
+        }
+
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        for (String operation : OPERATIONS) {
+            stats.put(operation, new Stats());
+        }
+        for (Future<Worker> future : futures) {
+            future.get().stats.forEach((operation, workerStats) -> stats.get(operation).add(workerStats));
+        }
+        executor.shutdown();
+        Stats total = new Stats();
+        stats.values().forEach(total::add);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("concurrency", concurrency);
+        report.put("durationSeconds", durationSeconds);
+        report.put("mix", mix);
+        report.put("total", total.toReport(durationSeconds));
+        Map<String, Object> operations = new LinkedHashMap<>();
+        stats.forEach((operation, operationStats) -> {
+            if (operationStats.requests > 0) {
+                operations.put(operation, operationStats.toReport(durationSeconds));
+            }
+        });
+        report.put("operations", operations);
+
+        reportFile.getAbsoluteFile().getParentFile().mkdirs();
+        this.objectMapper.writeValue(reportFile, report);
+        System.out.println(this.objectMapper.writeValueAsString(report));
+
+        assertThat(total.requests).isPositive();
+        String baseline = System.getProperty("load.baseline");
+        if (baseline != null) {
+            List<String> regressions = regressions(this.objectMapper.readTree(new File(baseline)),
+                    this.objectMapper.valueToTree(report), tolerance);
+            regressions.forEach(System.out::println);
+            assertThat(regressions).as("regressions against " + baseline).isEmpty();
+        }
+    }
+
+    static List<String> regressions(JsonNode baseline, JsonNode current, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        Map<String, JsonNode> sections = new LinkedHashMap<>();
+        sections.put("total", baseline.path("total"));
+        baseline.path("operations").fields().forEachRemaining(e -> sections.put(e.getKey(), e.getValue()));
+
+        sections.forEach((name, expected) -> {
+            JsonNode actual = "total".equals(name) ? current.path("total") : current.path("operations").path(name);
+            if (actual.isMissingNode()) {
+                regressions.add(name + ": missing from the current run");
+                return;
+            }
+            double throughput = actual.path("throughput").asDouble();
+            double expectedThroughput = expected.path("throughput").asDouble();
+            if (throughput < expectedThroughput * (1 - tolerance)) {
+                regressions.add(String.format("%s: throughput %.1f/s < baseline %.1f/s", name, throughput, expectedThroughput));
+            }
+            double p99 = actual.path("p99Ms").asDouble();
+            double expectedP99 = expected.path("p99Ms").asDouble();
+            if (p99 > expectedP99 * (1 + tolerance)) {
+                regressions.add(String.format("%s: p99 %.3f ms > baseline %.3f ms", name, p99, expectedP99));
+            }
+            double errorRate = actual.path("errorRate").asDouble();
+            double expectedErrorRate = expected.path("errorRate").asDouble();
+            if (errorRate > expectedErrorRate + 0.01) {
+                regressions.add(String.format("%s: error rate %.4f > baseline %.4f", name, errorRate, expectedErrorRate));
+            }
+        });
+        return regressions;
+    }
+
+    private static Map<String, Integer> mix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split(":");
+            assertThat(OPERATIONS).as("load.mix operation").contains(pair[0]);
+            weights.put(pair[0], Integer.parseInt(pair[1]));
+        }
+        return weights;
+    }
+
+    private String accessToken(String username, String password) throws Exception {
+        String credentials = appProperties.getClientId() + ":" + appProperties.getClientSecret();
+        HttpRequest request = HttpRequest.newBuilder(uri("/oauth/token"))
+                .header(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString("grant_type=password"
+                        + "&username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                        + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8)))
+                .build();
+        HttpResponse<String> response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+        return this.objectMapper.readTree(response.body()).get("access_token").asText();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + this.port + path);
+    }
+
+    private class Worker {
+        private final String bearerToken;
+        private final String[] operations;
+        private final int[] cumulativeWeights;
+        private final long measureFrom;
+        private final long measureTo;
+        private final CountDownLatch ready;
+        private final List<Integer> ownEventIds = new ArrayList<>();
+        private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+        Worker(String accessToken, Map<String, Integer> mix, long measureFrom, long measureTo, CountDownLatch ready) {
+            this.bearerToken = "Bearer " + accessToken;
+            this.operations = mix.keySet().toArray(new String[0]);
+            this.cumulativeWeights = new int[this.operations.length];
+            int sum = 0;
+            for (int i = 0; i < this.operations.length; i++) {
+                sum += mix.get(this.operations[i]);
+                this.cumulativeWeights[i] = sum;
+            }
+            this.measureFrom = measureFrom;
+            this.measureTo = measureTo;
+            this.ready = ready;
+            for (String operation : OPERATIONS) {
+                this.stats.put(operation, new Stats());
+            }
+        }
+
+        void run() throws Exception {
+            perform("create");
+            this.ready.countDown();
+            this.ready.await();
+
+            long now;
+            while ((now = System.nanoTime()) < this.measureTo) {
+                String operation = next();
+                long startedAt = System.nanoTime();
+                String status = perform(operation);
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt);
+                if (now >= this.measureFrom) {
+                    this.stats.get(operation).record(micros, status);
+                }
+            }
+        }
+
+        private String next() {
+            int pick = ThreadLocalRandom.current().nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+            for (int i = 0; ; i++) {
+                if (pick < this.cumulativeWeights[i]) {
+                    return this.operations[i];
+                }
+            }
+        }
+
+        private String perform(String operation) {
+            try {
+                HttpResponse<byte[]> response = LoadRun.this.httpClient.send(request(operation),
+                        HttpResponse.BodyHandlers.ofByteArray());
+                if ("create".equals(operation) && response.statusCode() == 201) {
+                    this.ownEventIds.add(objectMapper.readTree(response.body()).get("id").asInt());
+                }
+                return String.valueOf(response.statusCode());
+            } catch (Exception e) {
+                return e.getClass().getSimpleName();
+            }
+        }
+
+        private HttpRequest request(String operation) throws Exception {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            switch (operation) {
+                case "create":
+                    return json(HttpRequest.newBuilder(uri("/api/events")), "POST", eventJson(random));
+                case "update":
+                    int id = this.ownEventIds.get(random.nextInt(this.ownEventIds.size()));
+                    return json(HttpRequest.newBuilder(uri("/api/events/" + id)), "PUT", eventJson(random));
+                case "get":
+                    return HttpRequest.newBuilder(uri("/api/events/" + this.ownEventIds.get(random.nextInt(this.ownEventIds.size()))))
+                            .header(HttpHeaders.ACCEPT, MediaTypes.HAL_JSON_VALUE)
+                            .build();
+                default:
+                    return HttpRequest.newBuilder(uri("/api/events?page=" + random.nextInt(5) + "&size=10&sort=id,DESC"))
+                            .header(HttpHeaders.ACCEPT, MediaTypes.HAL_JSON_VALUE)
+                            .build();
+            }
+        }
+
+        private HttpRequest json(HttpRequest.Builder builder, String method, String body) {
+            return builder
+                    .header(HttpHeaders.AUTHORIZATION, this.bearerToken)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .header(HttpHeaders.ACCEPT, MediaTypes.HAL_JSON_VALUE)
+                    .method(method, HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private String eventJson(ThreadLocalRandom random) {
+            int basePrice = random.nextInt(5) * 10000;
+            return "{\"name\":\"load " + random.nextInt(1_000_000) + "\",\"description\":\"load test event\","
+                    + "\"beginEnrollmentDateTime\":\"2021-08-01T08:30:00\",\"closeEnrollmentDateTime\":\"2021-08-20T08:30:00\","
+                    + "\"beginEventDateTime\":\"2021-08-21T08:30:00\",\"endEventDateTime\":\"2021-08-28T08:30:00\","
+                    + "\"location\":\"location\",\"basePrice\":" + basePrice + ",\"maxPrice\":" + (basePrice * 2)
+                    + ",\"limitOfEnrollment\":" + random.nextInt(1, 500) + "}";
+        }
+    }
+
+    public static class ProfilesResolver implements ActiveProfilesResolver {
+        @Override
+        public String[] resolve(Class<?> testClass) {
+            return StringUtils.tokenizeToStringArray(System.getProperty("load.profiles", "test"), ",");
+        }
+    }
+
+    private static class Stats {
+        private final Histogram latencies = new Histogram(MAX_LATENCY_MICROS, 3);
+        private final Map<String, Long> statuses = new TreeMap<>();
+        private long requests;
+        private long errors;
+
+        void record(long micros, String status) {
+            this.latencies.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+            this.statuses.merge(status, 1L, Long::sum);
+            this.requests++;
+            if (!status.startsWith("2")) {
+                this.errors++;
+            }
+        }
+
+        void add(Stats other) {
+            this.latencies.add(other.latencies);
+            other.statuses.forEach((status, count) -> this.statuses.merge(status, count, Long::sum));
+            this.requests += other.requests;
+            this.errors += other.errors;
+        }
+
+        Map<String, Object> toReport(int durationSeconds) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("requests", this.requests);
+            report.put("errors", this.errors);
+            report.put("errorRate", this.requests == 0 ? 0 : (double) this.errors / this.requests);
+            report.put("throughput", (double) this.requests / durationSeconds);
+            report.put("p50Ms", millis(50));
+            report.put("p99Ms", millis(99));
+            report.put("p999Ms", millis(99.9));
+            report.put("maxMs", this.latencies.getMaxValue() / 1000.0);
+            report.put("statuses", this.statuses);
+            return report;
+        }
+
+        private double millis(double percentile) {
+            return this.latencies.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
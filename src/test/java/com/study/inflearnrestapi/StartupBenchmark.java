@@ -0,0 +1,88 @@
+package com.study.inflearnrestapi;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.MediaTypes;
+
+import java.io.File;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application in a fresh JVM and reports the time until {@code GET /api} first answers 200,
+ * with and without the fast-start profile.
+ */
+public class StartupBenchmark {
+
+    private static final int RUNS = 3;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    public void timeToFirstIndexResponse() throws Exception {
+        long defaultStartup = medianStartupMillis("test");
+        long fastStartup = medianStartupMillis("test,fast-start");
+
+        System.out.printf("%-48s %12d ms%n", "startup (test)", defaultStartup);
+        System.out.printf("%-48s %12d ms%n", "startup (test,fast-start)", fastStartup);
+        assertThat(fastStartup).isPositive();
+    }
+
+    private long medianStartupMillis(String profiles) throws Exception {
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            millis[i] = startupMillis(profiles);
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+
+    private long startupMillis(String profiles) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        List<String> command = new ArrayList<>(List.of(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", System.getProperty("java.class.path"),
+                InflearnRestApiApplication.class.getName(),
+                "--spring.profiles.active=" + profiles,
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--server.port=" + port));
+
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD).redirectErrorStream(true).start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api"))
+                    .header("Accept", MediaTypes.HAL_JSON_VALUE)
+                    .build();
+            long deadline = startedAt + TimeUnit.MINUTES.toNanos(2);
+            while (System.nanoTime() < deadline) {
+                assertThat(process.isAlive()).as("application exited before answering").isTrue();
+                try {
+                    if (this.httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                Thread.sleep(20);
+            }
+            throw new AssertionError("GET /api did not answer 200 within 2 minutes");
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.study.inflearnrestapi.common;
+
+import com.study.inflearnrestapi.events.EventController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+public class ApiLinksBenchmark {
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void selfLinkPerItem() throws Exception {
+        ApiLinksTest.bindRequest("localhost", 8080, "http");
+        ApiLinks apiLinks = new ApiLinks();
+        assertThat(apiLinks.event(1)).isEqualTo(linkTo(EventController.class).slash(1).withSelfRel());
+
+        Benchmarks.Result linkTo = Benchmarks.measure("linkTo(EventController).slash(id)", 100_000,
+                () -> linkTo(EventController.class).slash(42).withSelfRel());
+        Benchmarks.Result cached = Benchmarks.measure("ApiLinks.event(id)", 100_000,
+                () -> apiLinks.event(42));
+
+        assertThat(cached.getNanosPerOp()).isLessThan(linkTo.getNanosPerOp());
+    }
+}
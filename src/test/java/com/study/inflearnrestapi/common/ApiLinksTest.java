@@ -0,0 +1,46 @@
+package com.study.inflearnrestapi.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ApiLinksTest {
+
+    ApiLinks apiLinks = new ApiLinks();
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void buildsLinksFromRequestHost() {
+        bindRequest("api.example.com", 8443, "https");
+
+        assertThat(apiLinks.event(1).getHref()).isEqualTo("https://api.example.com:8443/api/events/1");
+        assertThat(apiLinks.events("query-events").getHref()).isEqualTo("https://api.example.com:8443/api/events");
+        assertThat(apiLinks.index("index").getHref()).isEqualTo("https://api.example.com:8443/api");
+    }
+
+    @Test
+    public void resolvesBasePerHost() {
+        bindRequest("first.example.com", 80, "http");
+        assertThat(apiLinks.event(1).getHref()).isEqualTo("http://first.example.com/api/events/1");
+
+        bindRequest("second.example.com", 80, "http");
+        assertThat(apiLinks.event(2).getHref()).isEqualTo("http://second.example.com/api/events/2");
+    }
+
+    static MockHttpServletRequest bindRequest(String host, int port, String scheme) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        request.setScheme(scheme);
+        request.setServerName(host);
+        request.setServerPort(port);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        return request;
+    }
+}
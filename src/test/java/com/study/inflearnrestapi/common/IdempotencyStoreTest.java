@@ -0,0 +1,84 @@
+package com.study.inflearnrestapi.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:idempotency"
+})
+public class IdempotencyStoreTest {
+
+    @Autowired
+    IdempotencyRecordRepository repository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @DisplayName("다른 노드에서 처리한 키는 데이터베이스에 저장된 응답으로 재응답하는 테스트")
+    @Test
+    public void replaysFromDatabaseOnAnotherNode() {
+        IdempotencyStore node1 = store(100);
+        IdempotencyStore node2 = store(100);
+
+        IdempotencyStore.Claim claim = node1.claim("other-node", "fingerprint");
+        assertThat(claim.getType()).isEqualTo(IdempotencyStore.Claim.Type.EXECUTE);
+        node1.complete(claim, response("created"));
+
+        IdempotencyStore.Claim replay = node2.claim("other-node", "fingerprint");
+        assertThat(replay.getType()).isEqualTo(IdempotencyStore.Claim.Type.REPLAY);
+        assertThat(replay.getResponse().getStatus()).isEqualTo(201);
+        assertThat(replay.getResponse().getLocation()).isEqualTo("/api/events/1");
+        assertThat(new String(replay.getResponse().getBody(), StandardCharsets.UTF_8)).isEqualTo("created");
+
+        assertThat(store(100).claim("other-node", "another fingerprint").getType())
+                .isEqualTo(IdempotencyStore.Claim.Type.MISMATCH);
+    }
+
+    @DisplayName("메모리에서 밀려난 키도 데이터베이스에 저장된 응답으로 재응답하는 테스트")
+    @Test
+    public void replaysFromDatabaseAfterEviction() {
+        IdempotencyStore store = store(1);
+
+        IdempotencyStore.Claim claim = store.claim("evicted", "fingerprint");
+        store.complete(claim, response("evicted"));
+        store.complete(store.claim("newer", "fingerprint"), response("newer"));
+        assertThat(store.size()).isEqualTo(1);
+
+        IdempotencyStore.Claim replay = store.claim("evicted", "fingerprint");
+        assertThat(replay.getType()).isEqualTo(IdempotencyStore.Claim.Type.REPLAY);
+        assertThat(new String(replay.getResponse().getBody(), StandardCharsets.UTF_8)).isEqualTo("evicted");
+    }
+
+    @DisplayName("다른 노드에서 처리 중인 키는 기다린 뒤 거절하고, 대기 시간보다 오래된 키는 이어받는 테스트")
+    @Test
+    public void rejectsKeyInProgressOnAnotherNode() {
+        IdempotencyStore node1 = store(100);
+        IdempotencyStore node2 = store(100);
+
+        assertThat(node1.claim("in-progress", "fingerprint").getType()).isEqualTo(IdempotencyStore.Claim.Type.EXECUTE);
+
+        assertThat(node2.claim("in-progress", "fingerprint").getType()).isEqualTo(IdempotencyStore.Claim.Type.IN_PROGRESS);
+        assertThat(store(100).claim("in-progress", "fingerprint").getType()).isEqualTo(IdempotencyStore.Claim.Type.EXECUTE);
+    }
+
+    private IdempotencyStore store(int maxEntries) {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setMaxEntries(maxEntries);
+        properties.setWaitTimeoutMs(200);
+        return new IdempotencyStore(properties, this.repository, this.transactionManager);
+    }
+
+    private static IdempotencyStore.Response response(String body) {
+        return new IdempotencyStore.Response(201, "/api/events/1", "application/hal+json", body.getBytes(StandardCharsets.UTF_8));
+    }
+}
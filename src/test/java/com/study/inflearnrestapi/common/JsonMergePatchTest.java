@@ -0,0 +1,33 @@
+package com.study.inflearnrestapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonMergePatchTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void mergesMembersAndRemovesNulls() throws Exception {
+        assertMerge("{\"a\":\"b\",\"c\":{\"d\":\"e\",\"f\":\"g\"}}",
+                "{\"a\":\"z\",\"c\":{\"f\":null}}",
+                "{\"a\":\"z\",\"c\":{\"d\":\"e\"}}");
+        assertMerge("{\"a\":\"b\"}", "{\"b\":null}", "{\"a\":\"b\"}");
+        assertMerge("{\"a\":{\"b\":\"c\"}}", "{\"a\":{\"b\":\"d\",\"c\":null}}", "{\"a\":{\"b\":\"d\"}}");
+    }
+
+    @Test
+    public void replacesWithNonObjects() throws Exception {
+        assertMerge("{\"a\":[\"b\"]}", "{\"a\":\"c\"}", "{\"a\":\"c\"}");
+        assertMerge("{\"a\":\"b\"}", "[\"c\"]", "[\"c\"]");
+        assertMerge("[1,2]", "{\"a\":\"b\",\"c\":null}", "{\"a\":\"b\"}");
+        assertMerge("{\"e\":null}", "{\"a\":1}", "{\"e\":null,\"a\":1}");
+    }
+
+    private void assertMerge(String target, String patch, String expected) throws Exception {
+        assertThat(JsonMergePatch.apply(objectMapper.readTree(target), objectMapper.readTree(patch)))
+                .isEqualTo(objectMapper.readTree(expected));
+    }
+}
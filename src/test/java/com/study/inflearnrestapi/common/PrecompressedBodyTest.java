@@ -0,0 +1,53 @@
+package com.study.inflearnrestapi.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrecompressedBodyTest {
+
+    @DisplayName("Accept-Encoding의 q 값을 보고 gzip을 허용하는지 판단하는 테스트")
+    @Test
+    public void acceptsGzipByQValue() {
+        assertThat(PrecompressedBody.acceptsGzip(null)).isFalse();
+        assertThat(PrecompressedBody.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(PrecompressedBody.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(PrecompressedBody.acceptsGzip("x-gzip")).isTrue();
+        assertThat(PrecompressedBody.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(PrecompressedBody.acceptsGzip("gzip; q=0.000, deflate")).isFalse();
+        assertThat(PrecompressedBody.acceptsGzip("deflate, br")).isFalse();
+        assertThat(PrecompressedBody.acceptsGzip("*")).isTrue();
+        assertThat(PrecompressedBody.acceptsGzip("*;q=0")).isFalse();
+        assertThat(PrecompressedBody.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(PrecompressedBody.acceptsGzip("identity;q=1, *;q=0.1")).isTrue();
+    }
+
+    @DisplayName("gzip을 거절한 요청에는 압축하지 않은 본문을 보내는 테스트")
+    @Test
+    public void writesIdentityWhenGzipRefused() throws Exception {
+        byte[] identity = "{\"hello\":\"world\"}".getBytes(StandardCharsets.UTF_8);
+        PrecompressedBody body = new PrecompressedBody("application/json", identity);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        body.write(request, response, "no-cache");
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(identity);
+
+        request = new MockHttpServletRequest("GET", "/api");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.8");
+        response = new MockHttpServletResponse();
+        body.write(request, response, "no-cache");
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getContentAsByteArray()).isEqualTo(PrecompressedBody.gzip(identity));
+    }
+}
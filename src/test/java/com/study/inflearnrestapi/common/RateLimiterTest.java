@@ -0,0 +1,98 @@
+package com.study.inflearnrestapi.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimiterTest {
+
+    @DisplayName("버스트 만큼 허용한 뒤 다음 토큰까지 기다릴 시간을 알려주는 테스트")
+    @Test
+    public void burstThenRetryAfter() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter rateLimiter = new RateLimiter(2, 3, 100, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("a")).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("a")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(rateLimiter.tryAcquire("b")).isZero();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isPositive();
+    }
+
+    @DisplayName("키 개수가 넘치면 다시 가득 찬 버킷부터 지우고, 제한 중인 버킷은 남기는 테스트")
+    @Test
+    public void evictsFullBucketsFirst() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter rateLimiter = new RateLimiter(1, 1, 2, clock::get);
+
+        rateLimiter.tryAcquire("a");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        rateLimiter.tryAcquire("b");
+        rateLimiter.tryAcquire("c");
+
+        assertThat(rateLimiter.size()).isEqualTo(2);
+        assertThat(rateLimiter.tryAcquire("b")).isPositive();
+        assertThat(rateLimiter.tryAcquire("c")).isPositive();
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+    }
+
+    @DisplayName("가득 찬 버킷이 없어도 키 개수가 한도를 넘지 않게 지우는 테스트")
+    @Test
+    public void keepsKeysBounded() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter rateLimiter = new RateLimiter(1, 1, 10, clock::get);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(rateLimiter.tryAcquire("key-" + i)).isZero();
+            assertThat(rateLimiter.size()).isLessThanOrEqualTo(10);
+        }
+    }
+
+    @DisplayName("같은 클라이언트의 토큰 요청이 너무 많으면 429를 응답하고, 모르는 클라이언트는 주소별로 제한하는 테스트")
+    @Test
+    public void tokenEndpointReturns429() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setTokenPermitsPerSecond(1);
+        properties.setTokenBurst(1);
+        AppProperties appProperties = new AppProperties();
+        appProperties.setClientId("myApp");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenRateLimitFilter filter = new TokenRateLimitFilter(properties, appProperties, meterRegistry);
+
+        MockHttpServletResponse first = requestToken(filter, "myApp");
+        MockHttpServletResponse second = requestToken(filter, "myApp");
+        MockHttpServletResponse unknownClient = requestToken(filter, "otherApp");
+        MockHttpServletResponse anotherUnknownClient = requestToken(filter, "anotherApp");
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(429);
+        assertThat(second.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(unknownClient.getStatus()).isEqualTo(200);
+        assertThat(anotherUnknownClient.getStatus()).isEqualTo(429);
+        assertThat(meterRegistry.counter(RateLimitResponses.REJECTIONS_METRIC, "reason", "client").count()).isEqualTo(2);
+    }
+
+    private MockHttpServletResponse requestToken(TokenRateLimitFilter filter, String clientId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/oauth/token");
+        String credentials = Base64.getEncoder().encodeToString((clientId + ":secret").getBytes(StandardCharsets.UTF_8));
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Basic " + credentials);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,125 @@
+package com.study.inflearnrestapi.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    @DisplayName("동시에 들어온 같은 키의 요청이 한 번의 조회 결과를 공유하는 테스트")
+    @Test
+    public void concurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(5_000, 100);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("event-1", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return 42;
+            }));
+            while (singleFlight.inFlight() == 0) {
+                Thread.onSpinWait();
+            }
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute("event-1", loads::incrementAndGet)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            for (Future<Integer> follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+            assertThat(loads).hasValue(1);
+            assertThat(singleFlight.inFlight()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("대기 시간이 지나면 직접 조회하고, 진행 중인 키가 너무 많으면 합치지 않는 테스트")
+    @Test
+    public void timeoutAndBound() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(50, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> singleFlight.execute("slow", () -> {
+                await(release);
+                return "leader";
+            }));
+            while (singleFlight.inFlight() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThat(singleFlight.execute("slow", () -> "timed out")).isEqualTo("timed out");
+            assertThat(singleFlight.execute("other", () -> "bypassed")).isEqualTo("bypassed");
+            assertThat(singleFlight.inFlight()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("쓰기 이후 forget 한 키는 진행 중인 조회에 합류하지 않고 새로 조회하는 테스트")
+    @Test
+    public void forgetStartsNewLoad() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(5_000, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> stale = executor.submit(() -> singleFlight.execute("event-1", () -> {
+                await(release);
+                return "before write";
+            }));
+            while (singleFlight.inFlight() == 0) {
+                Thread.onSpinWait();
+            }
+
+            singleFlight.forget("event-1");
+
+            assertThat(singleFlight.execute("event-1", () -> "after write")).isEqualTo("after write");
+            release.countDown();
+            assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+            assertThat(singleFlight.inFlight()).isZero();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("조회 중 발생한 예외를 그대로 전달하고 키를 정리하는 테스트")
+    @Test
+    public void propagatesFailure() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(50, 10);
+
+        assertThatThrownBy(() -> singleFlight.execute("broken", () -> {
+            throw new IllegalArgumentException("broken");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(singleFlight.inFlight()).isZero();
+        assertThat(singleFlight.execute("broken", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
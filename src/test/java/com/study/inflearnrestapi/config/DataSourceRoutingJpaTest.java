@@ -0,0 +1,144 @@
+package com.study.inflearnrestapi.config;
+
+import com.study.inflearnrestapi.accounts.Account;
+import com.study.inflearnrestapi.accounts.AccountRepository;
+import com.study.inflearnrestapi.common.AppProperties;
+import com.study.inflearnrestapi.events.Event;
+import com.study.inflearnrestapi.events.EventDto;
+import com.study.inflearnrestapi.events.EventRepository;
+import com.study.inflearnrestapi.events.EventService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the application against a replica that is the primary database seen through a user that may only read, so a
+ * write sent to the replica fails instead of passing unnoticed.
+ */
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:routing",
+        "spring.datasource.hikari.maximum-pool-size=7",
+        "my-app.datasource.routing.enabled=true",
+        "my-app.datasource.routing.replicas[0].url=jdbc:h2:mem:routing",
+        "my-app.datasource.routing.replicas[0].username=reader",
+        "my-app.datasource.routing.replicas[0].password=reader",
+        "my-app.datasource.routing.replicas[0].driver-class-name=org.h2.Driver",
+        "my-app.datasource.routing.replicas[0].hikari.maximum-pool-size=3",
+        "my-app.datasource.routing.replicas[0].hikari.connection-timeout=1500",
+        "my-app.datasource.routing.read-your-writes-ms=0",
+        "my-app.datasource.routing.health-check-interval-ms=3600000"
+})
+public class DataSourceRoutingJpaTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    ModelMapper modelMapper;
+
+    @Autowired
+    ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    AppProperties appProperties;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcTemplate primary = new JdbcTemplate(this.routingDataSource);
+        primary.execute("create user if not exists reader password 'reader'");
+        for (String table : primary.queryForList(
+                "select table_name from information_schema.tables where table_schema = 'PUBLIC'", String.class)) {
+            primary.execute("grant select on " + table + " to reader");
+        }
+        this.routingDataSource.checkReplicas();
+        assertThat(this.routingDataSource.healthyReplicas()).isEqualTo(1);
+    }
+
+    @DisplayName("한 요청에서 복제본을 읽은 뒤 쓰는 수정이 주 DB로 가는 테스트")
+    @Test
+    public void writesAfterReadsGoToPrimary() throws Exception {
+        Account manager = this.accountRepository.findByEmail(this.appProperties.getAdminUsername()).orElseThrow();
+        Event event = this.eventService.createEvent(Event.builder()
+                .name("routing")
+                .description("routing")
+                .beginEnrollmentDateTime(LocalDateTime.of(2021, 8, 1, 8, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 20, 8, 30))
+                .beginEventDateTime(LocalDateTime.of(2021, 8, 21, 8, 30))
+                .endEventDateTime(LocalDateTime.of(2021, 8, 28, 8, 30))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(10)
+                .manager(manager)
+                .build());
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        eventDto.setName("routed");
+
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andExpect(status().isOk());
+
+        assertThat(this.eventRepository.findById(event.getId()).orElseThrow().getName()).isEqualTo("routed");
+    }
+
+    @DisplayName("주 DB는 spring.datasource.hikari, 복제본은 각자의 hikari 설정으로 커넥션 풀을 만드는 테스트")
+    @Test
+    public void bindsPoolSettings() {
+        List<DataSource> dataSources = this.routingDataSource.dataSources();
+
+        HikariDataSource primary = (HikariDataSource) dataSources.get(0);
+        assertThat(primary.getMaximumPoolSize()).isEqualTo(7);
+        HikariDataSource replica = (HikariDataSource) dataSources.get(1);
+        assertThat(replica.getPoolName()).isEqualTo("replica-0");
+        assertThat(replica.getMaximumPoolSize()).isEqualTo(3);
+        assertThat(replica.getConnectionTimeout()).isEqualTo(1500);
+    }
+
+    private String accessToken() throws Exception {
+        String body = this.mockMvc.perform(post("/oauth/token")
+                        .with(httpBasic(this.appProperties.getClientId(), this.appProperties.getClientSecret()))
+                        .param("username", this.appProperties.getAdminUsername())
+                        .param("password", this.appProperties.getAdminPassword())
+                        .param("grant_type", "password"))
+                .andReturn().getResponse().getContentAsString();
+        return new Jackson2JsonParser().parseMap(body).get("access_token").toString();
+    }
+}
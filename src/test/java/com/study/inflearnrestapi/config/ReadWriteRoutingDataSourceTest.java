@@ -0,0 +1,164 @@
+package com.study.inflearnrestapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    DataSource primary;
+    DataSource replica;
+    AtomicReference<String> principal = new AtomicReference<>();
+    AtomicLong clock = new AtomicLong();
+
+    @BeforeEach
+    public void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        primary = h2("primary-" + suffix, "primary");
+        replica = h2("replica-" + suffix, "replica");
+    }
+
+    @DisplayName("읽기 전용 트랜잭션은 복제본으로, 쓰기는 주 DB로 보내는 테스트")
+    @Test
+    public void routesReadOnlyTransactionsToReplica() {
+        ReadWriteRoutingDataSource routing = routing(primary, replica);
+
+        assertThat(read(routing)).isEqualTo("replica");
+        assertThat(write(routing)).isEqualTo("primary");
+        assertThat(read(routing)).isEqualTo("replica");
+    }
+
+    @DisplayName("쓴 사용자의 다음 읽기는 정해진 시간 동안 주 DB로 보내는 테스트")
+    @Test
+    public void readsOwnWrites() {
+        ReadWriteRoutingDataSource routing = routing(primary, replica);
+
+        principal.set("user@email.com");
+        write(routing);
+        assertThat(read(routing)).isEqualTo("primary");
+
+        principal.set("admin@email.com");
+        assertThat(read(routing)).isEqualTo("replica");
+
+        principal.set("user@email.com");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(read(routing)).isEqualTo("replica");
+    }
+
+    @DisplayName("추적하는 사용자 수가 가득 차면 가장 오래전에 쓴 사용자부터 잊는 테스트")
+    @Test
+    public void forgetsOldestWriters() {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica), 5000, 2, principal::get, clock::get);
+
+        for (String writer : List.of("a@email.com", "b@email.com", "a@email.com", "c@email.com")) {
+            principal.set(writer);
+            write(routing);
+        }
+
+        principal.set("b@email.com");
+        assertThat(read(routing)).isEqualTo("replica");
+        principal.set("a@email.com");
+        assertThat(read(routing)).isEqualTo("primary");
+        principal.set("c@email.com");
+        assertThat(read(routing)).isEqualTo("primary");
+    }
+
+    @DisplayName("계정을 지정한 연결은 주 DB에서 받는 테스트")
+    @Test
+    public void connectsWithCredentialsToPrimary() throws Exception {
+        ReadWriteRoutingDataSource routing = routing(primary, replica);
+
+        try (Connection connection = routing.getConnection("sa", "")) {
+            assertThat(new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                    .queryForObject("select name from node", String.class)).isEqualTo("primary");
+        }
+    }
+
+    @DisplayName("복제본에 연결할 수 없으면 주 DB에서 읽고, 복구되면 다시 복제본을 쓰는 테스트")
+    @Test
+    public void failsOverToPrimary() {
+        DriverManagerDataSource broken = new DriverManagerDataSource("jdbc:h2:mem:replica;IFEXISTS=TRUE", "sa", "");
+        ReadWriteRoutingDataSource routing = routing(primary, broken);
+
+        assertThat(read(routing)).isEqualTo("primary");
+        assertThat(routing.healthyReplicas()).isZero();
+
+        broken.setUrl(((DriverManagerDataSource) replica).getUrl());
+        routing.checkReplicas();
+        assertThat(routing.healthyReplicas()).isEqualTo(1);
+        assertThat(read(routing)).isEqualTo("replica");
+    }
+
+    @DisplayName("닫으면 주 DB와 복제본의 커넥션 풀을 모두 닫는 테스트")
+    @Test
+    public void closesPools() throws Exception {
+        HikariDataSource primaryPool = pool(((DriverManagerDataSource) primary).getUrl());
+        HikariDataSource replicaPool = pool(((DriverManagerDataSource) replica).getUrl());
+        ReadWriteRoutingDataSource routing = routing(primaryPool, replicaPool);
+        assertThat(read(routing)).isEqualTo("replica");
+
+        routing.close();
+
+        assertThat(primaryPool.isClosed()).isTrue();
+        assertThat(replicaPool.isClosed()).isTrue();
+    }
+
+    private HikariDataSource pool(String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setUsername("sa");
+        return pool;
+    }
+
+    private ReadWriteRoutingDataSource routing(DataSource primary, DataSource replica) {
+        return new ReadWriteRoutingDataSource(primary, List.of(replica), 5000, 100, principal::get, clock::get);
+    }
+
+    private String read(ReadWriteRoutingDataSource routing) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        return transaction(dataSource, true).execute(s -> whereAmI(dataSource));
+    }
+
+    private String write(ReadWriteRoutingDataSource routing) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        return transaction(dataSource, false).execute(s -> {
+            new JdbcTemplate(dataSource).update("update node set writes = writes + 1");
+            return whereAmI(dataSource);
+        });
+    }
+
+    private TransactionTemplate transaction(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate;
+    }
+
+    private String whereAmI(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select name from node", String.class);
+    }
+
+    private static DataSource h2(String database, String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(16), writes int)");
+        jdbcTemplate.update("insert into node values (?, 0)", name);
+        return dataSource;
+    }
+}
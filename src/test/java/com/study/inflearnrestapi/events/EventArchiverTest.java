@@ -0,0 +1,98 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.accounts.Account;
+import com.study.inflearnrestapi.accounts.AccountRole;
+import com.study.inflearnrestapi.accounts.AccountService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:archive",
+        "my-app.events.archive.enabled=true",
+        "my-app.events.archive.interval-ms=3600000",
+        "my-app.events.archive.batch-size=2"
+})
+public class EventArchiverTest {
+
+    @Autowired
+    EventArchiver eventArchiver;
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    EventChangeRepository eventChangeRepository;
+
+    @Autowired
+    EventFacets eventFacets;
+
+    @Autowired
+    AccountService accountService;
+
+    @DisplayName("끝난 이벤트를 나눠서 보관 테이블로 옮기고, 아이디로는 계속 조회하는 테스트")
+    @Test
+    public void archivesEndedEvents() {
+        Account manager = accountService.saveAccount(Account.builder()
+                .email("archive@email.com")
+                .password("password")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Event ended1 = eventService.createEvent(event("ended1", now.minusDays(60), manager));
+        Event ended2 = eventService.createEvent(event("ended2", now.minusDays(45), manager));
+        Event ended3 = eventService.createEvent(event("ended3", now.minusDays(31), manager));
+        Event recent = eventService.createEvent(event("recent", now.minusDays(1), manager));
+        Event upcoming = eventService.createEvent(event("upcoming", now.plusDays(10), manager));
+
+        assertThat(eventArchiver.archive()).isEqualTo(3);
+        assertThat(eventArchiver.archive()).isZero();
+
+        assertThat(eventRepository.findAll()).containsExactlyInAnyOrder(recent, upcoming);
+        assertThat(eventService.findEvents(PageRequest.of(0, 10)).getTotalElements()).isEqualTo(2);
+        assertThat(eventFacets.snapshot().get("eventStatus").get(EventStatus.PUBLISHED.name())).isEqualTo(2);
+
+        Event archived = eventService.findEvent(ended2.getId()).orElseThrow();
+        assertThat(archived.getName()).isEqualTo("ended2");
+        assertThat(archived.getEndEventDateTime()).isEqualTo(ended2.getEndEventDateTime());
+        assertThat(archived.getManager()).isEqualTo(manager);
+        assertThat(eventService.findEvent(ended1.getId())).isPresent();
+        assertThat(eventService.findEvent(ended3.getId())).isPresent();
+        assertThat(eventService.findEventForUpdate(ended3.getId())).isEmpty();
+
+        assertThat(eventChangeRepository.findAll())
+                .filteredOn(change -> change.getType() == EventChangedEvent.Type.ARCHIVED)
+                .extracting(EventChange::getEventId)
+                .containsExactlyInAnyOrder(ended1.getId(), ended2.getId(), ended3.getId());
+    }
+
+    private static Event event(String name, LocalDateTime endEventDateTime, Account manager) {
+        return Event.builder()
+                .name(name)
+                .description("archive")
+                .beginEnrollmentDateTime(endEventDateTime.minusDays(20))
+                .closeEnrollmentDateTime(endEventDateTime.minusDays(10))
+                .beginEventDateTime(endEventDateTime.minusDays(7))
+                .endEventDateTime(endEventDateTime)
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(10)
+                .eventStatus(EventStatus.PUBLISHED)
+                .manager(manager)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.common.Benchmarks;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventCatalogBenchmark {
+
+    private static final int EVENTS = 500_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void find() throws Exception {
+        List<Event> events = IntStream.range(0, EVENTS)
+                .mapToObj(i -> Event.builder()
+                        .id(i)
+                        .name("event " + i)
+                        .description("description " + (i % 100))
+                        .location("location " + (i % 1000))
+                        .beginEventDateTime(LocalDateTime.of(2021, 8, 1, 8, 30).plusHours(i))
+                        .endEventDateTime(LocalDateTime.of(2021, 8, 2, 8, 30).plusHours(i))
+                        .basePrice(i % 50_000)
+                        .eventStatus(EventStatus.PUBLISHED)
+                        .build())
+                .collect(Collectors.toList());
+        Path file = this.directory.resolve(EventCatalog.SNAPSHOT_FILE);
+
+        Benchmarks.measure("EventCatalogSnapshot.write " + EVENTS, 3, () -> EventCatalogSnapshot.write(file, 1, events));
+        EventCatalogSnapshot snapshot = EventCatalogSnapshot.map(file);
+        System.out.printf("%-48s %12d bytes%n", "snapshot file", Files.size(file));
+
+        Benchmarks.Result find = Benchmarks.measure("EventCatalogSnapshot.find", 1_000_000, () -> {
+            if (snapshot.find(ThreadLocalRandom.current().nextInt(EVENTS)).isEmpty()) {
+                throw new AssertionError();
+            }
+        });
+
+        assertThat(find.getNanosPerOp()).isLessThan(100_000);
+    }
+}
@@ -0,0 +1,113 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.accounts.Account;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventCatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("스냅샷 파일에 쓴 이벤트를 매핑해서 그대로 읽는 테스트")
+    @Test
+    public void writeAndMap() throws Exception {
+        Event full = event(7, "이벤트 이름", "location");
+        full.setLatitude(37.5665);
+        full.setLongitude(126.978);
+        full.setBeginEnrollmentDateTime(LocalDateTime.of(2021, 8, 1, 8, 30, 15, 123_456_000));
+        Event sparse = Event.builder().id(3).eventStatus(EventStatus.PUBLISHED).build();
+        Path file = this.directory.resolve(EventCatalog.SNAPSHOT_FILE);
+
+        EventCatalogSnapshot.write(file, 42, List.of(full, sparse));
+        EventCatalogSnapshot snapshot = EventCatalogSnapshot.map(file);
+
+        assertThat(snapshot.getSequence()).isEqualTo(42);
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.find(5)).isEmpty();
+        assertThat(snapshot.find(3).orElseThrow()).usingRecursiveComparison().isEqualTo(sparse);
+        assertThat(snapshot.find(7).orElseThrow()).usingRecursiveComparison().isEqualTo(full);
+    }
+
+    @DisplayName("같은 문자열은 문자열 테이블에 한 번만 저장하는 테스트")
+    @Test
+    public void internsStrings() throws Exception {
+        List<Event> events = IntStream.range(0, 1000)
+                .mapToObj(i -> event(i, "name " + (i % 10), "location"))
+                .collect(Collectors.toList());
+        Path file = this.directory.resolve(EventCatalog.SNAPSHOT_FILE);
+
+        EventCatalogSnapshot.write(file, 1, events);
+
+        assertThat(Files.size(file)).isLessThan(1000L * EventCatalogSnapshot.RECORD_SIZE + 1024);
+        EventCatalogSnapshot snapshot = EventCatalogSnapshot.map(file);
+        for (int i = 0; i < 1000; i += 97) {
+            assertThat(snapshot.find(i).orElseThrow().getName()).isEqualTo("name " + (i % 10));
+        }
+    }
+
+    @DisplayName("변경 로그를 다시 적용하고 잘린 마지막 항목은 잘라내는 테스트")
+    @Test
+    public void replayDeltaLog() throws Exception {
+        Path file = this.directory.resolve(EventCatalog.DELTA_FILE);
+        Event updated = event(1, "updated", null);
+        try (EventCatalogDeltaLog deltaLog = new EventCatalogDeltaLog(file, true)) {
+            deltaLog.put(10, event(1, "old", null));
+            deltaLog.put(11, updated);
+            deltaLog.remove(11, 2);
+            deltaLog.put(12, event(3, "torn", null));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        Map<Integer, Event> applied = new LinkedHashMap<>();
+        long lastSequence = EventCatalogDeltaLog.replay(file, 10, (sequence, id, event) -> applied.put(id, event));
+
+        assertThat(lastSequence).isEqualTo(11);
+        assertThat(applied).containsOnlyKeys(1, 2);
+        assertThat(applied.get(1)).usingRecursiveComparison().isEqualTo(updated);
+        assertThat(applied.get(2)).isNull();
+
+        try (EventCatalogDeltaLog deltaLog = new EventCatalogDeltaLog(file, false)) {
+            deltaLog.remove(13, 1);
+        }
+        List<Long> sequences = new ArrayList<>();
+        assertThat(EventCatalogDeltaLog.replay(file, 0, (sequence, id, event) -> sequences.add(sequence))).isEqualTo(13);
+        assertThat(sequences).containsExactly(10L, 11L, 11L, 13L);
+    }
+
+    private static Event event(int id, String name, String location) {
+        return Event.builder()
+                .id(id)
+                .name(name)
+                .description("description")
+                .beginEnrollmentDateTime(LocalDateTime.of(2021, 8, 1, 8, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 20, 8, 30))
+                .beginEventDateTime(LocalDateTime.of(2021, 8, 21, 8, 30))
+                .endEventDateTime(LocalDateTime.of(2021, 8, 28, 8, 30))
+                .location(location)
+                .basePrice(1000)
+                .maxPrice(2000)
+                .limitOfEnrollment(30)
+                .offline(location != null)
+                .eventStatus(EventStatus.PUBLISHED)
+                .manager(Account.builder().id(100 + id).build())
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.accounts.Account;
+import com.study.inflearnrestapi.accounts.AccountRole;
+import com.study.inflearnrestapi.accounts.AccountService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:catalog",
+        "my-app.events.catalog.enabled=true",
+        "my-app.events.catalog.directory=target/event-catalog-test",
+        "my-app.events.catalog.follow-interval-ms=3600000",
+        "my-app.events.outbox.relay-interval-ms=3600000"
+})
+public class EventCatalogTest {
+
+    private static final Path DIRECTORY = Paths.get("target/event-catalog-test");
+
+    @Autowired
+    EventCatalog eventCatalog;
+
+    @Autowired
+    EventCatalogProperties eventCatalogProperties;
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    EventChangeRelay eventChangeRelay;
+
+    @Autowired
+    EventChangeRepository eventChangeRepository;
+
+    @Autowired
+    AccountService accountService;
+
+    @BeforeAll
+    public static void cleanDirectory() throws Exception {
+        FileSystemUtils.deleteRecursively(DIRECTORY);
+    }
+
+    @DisplayName("공개된 이벤트를 카탈로그에서 읽고, 이 노드의 변경은 바로, 다른 변경은 변경 내역을 따라가며 반영하고, 재시작 후에도 그대로 읽는 테스트")
+    @Test
+    public void servesPublishedEvents() throws Exception {
+        Account manager = accountService.saveAccount(Account.builder()
+                .email("catalog@email.com")
+                .password("password")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+        Event published = eventService.createEvent(event("published", EventStatus.PUBLISHED, manager));
+        Event draft = eventService.createEvent(event("draft", EventStatus.DRAFT, manager));
+        eventChangeRelay.relay();
+
+        eventCatalog.snapshot();
+        assertThat(eventCatalog.size()).isEqualTo(1);
+        assertThat(eventCatalog.find(published.getId()).orElseThrow().getName()).isEqualTo("published");
+        assertThat(eventCatalog.find(published.getId()).orElseThrow().getManager()).isEqualTo(manager);
+        assertThat(eventCatalog.find(draft.getId())).isEmpty();
+        assertThat(eventService.findEvent(draft.getId()).orElseThrow().getName()).isEqualTo("draft");
+
+        draft.setEventStatus(EventStatus.BEGAN_ENROLLMENT);
+        eventService.updateEvent(draft);
+        Event unpublished = eventService.findEventForUpdate(published.getId()).orElseThrow();
+        unpublished.setEventStatus(EventStatus.DRAFT);
+        eventService.updateEvent(unpublished);
+        assertThat(eventCatalog.find(draft.getId()).orElseThrow().getEventStatus()).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+        assertThat(eventCatalog.find(published.getId())).isEmpty();
+        eventChangeRelay.relay();
+        eventCatalog.follow();
+
+        assertThat(eventCatalog.getSequence()).isEqualTo(eventChangeRepository.findMaxSequence());
+        assertThat(eventCatalog.find(draft.getId()).orElseThrow().getEventStatus()).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+        assertThat(eventCatalog.find(published.getId())).isEmpty();
+        assertThat(eventService.findEvent(published.getId()).orElseThrow().getEventStatus()).isEqualTo(EventStatus.DRAFT);
+
+        EventCatalog restarted = new EventCatalog();
+        restarted.properties = eventCatalogProperties;
+        restarted.open();
+        try {
+            assertThat(restarted.getSequence()).isEqualTo(eventCatalog.getSequence());
+            assertThat(restarted.find(draft.getId()).orElseThrow().getName()).isEqualTo("draft");
+            assertThat(restarted.find(published.getId())).isEmpty();
+        } finally {
+            restarted.close();
+        }
+    }
+
+    private static Event event(String name, EventStatus eventStatus, Account manager) {
+        return Event.builder()
+                .name(name)
+                .description("catalog")
+                .beginEnrollmentDateTime(LocalDateTime.of(2021, 8, 1, 8, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 20, 8, 30))
+                .beginEventDateTime(LocalDateTime.of(2021, 8, 21, 8, 30))
+                .endEventDateTime(LocalDateTime.of(2021, 8, 28, 8, 30))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(10)
+                .eventStatus(eventStatus)
+                .manager(manager)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.study.inflearnrestapi.events;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.study.inflearnrestapi.common.Benchmarks;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.PagedModel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventCborBenchmark {
+
+    @Test
+    public void compareWithHalJson() throws Exception {
+        ObjectMapper json = EventFixtures.streamingObjectMapper(new JsonFactory());
+        ObjectMapper cbor = EventFixtures.streamingObjectMapper(new CBORFactory());
+
+        EventDto eventDto = EventDto.builder()
+                .name("name")
+                .description("description")
+                .beginEnrollmentDateTime(EventFixtures.event(1).getBeginEnrollmentDateTime())
+                .closeEnrollmentDateTime(EventFixtures.event(1).getCloseEnrollmentDateTime())
+                .beginEventDateTime(EventFixtures.event(1).getBeginEventDateTime())
+                .endEventDateTime(EventFixtures.event(1).getEndEventDateTime())
+                .location("location")
+                .basePrice(1000)
+                .maxPrice(2000)
+                .limitOfEnrollment(1000)
+                .build();
+        byte[] jsonDto = json.writeValueAsBytes(eventDto);
+        byte[] cborDto = cbor.writeValueAsBytes(eventDto);
+        System.out.printf("EventDto payload: hal+json=%d B, cbor=%d B%n", jsonDto.length, cborDto.length);
+        Benchmarks.measure("read EventDto hal+json", 100_000, () -> json.readValue(jsonDto, EventDto.class));
+        Benchmarks.measure("read EventDto cbor", 100_000, () -> cbor.readValue(cborDto, EventDto.class));
+
+        for (int size : new int[] {20, 100, 1000}) {
+            PagedModel<EventResource> page = EventFixtures.page(size);
+            byte[] jsonPage = json.writeValueAsBytes(page);
+            byte[] cborPage = cbor.writeValueAsBytes(page);
+            System.out.printf("page=%d payload: hal+json=%d B, cbor=%d B%n", size, jsonPage.length, cborPage.length);
+            assertThat(cborPage.length).isLessThan(jsonPage.length);
+
+            int iterations = Math.max(200, 50_000 / size);
+            Benchmarks.measure("write page=" + size + " hal+json", iterations, () -> json.writeValueAsBytes(page));
+            Benchmarks.measure("write page=" + size + " cbor", iterations, () -> cbor.writeValueAsBytes(page));
+            Benchmarks.measure("parse page=" + size + " hal+json", iterations, () -> json.readTree(jsonPage));
+            Benchmarks.measure("parse page=" + size + " cbor", iterations, () -> cbor.readTree(cborPage));
+        }
+    }
+}
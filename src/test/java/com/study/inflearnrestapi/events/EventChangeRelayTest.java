@@ -0,0 +1,132 @@
+package com.study.inflearnrestapi.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:relay",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:relay",
+        "my-app.events.outbox.relay-interval-ms=3600000"
+})
+public class EventChangeRelayTest {
+
+    @Autowired
+    EventChangeRepository eventChangeRepository;
+
+    @Autowired
+    EventChangeSequenceRepository eventChangeSequenceRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @DisplayName("여러 노드의 릴레이가 동시에 돌아도 변경 내역에 겹치지 않는 연속된 순번을 주고, 서로 발행한 순번을 따라가는 테스트")
+    @Test
+    public void relaysOnSeveralNodesShareOneSequence() {
+        eventChangeRepository.saveAll(IntStream.rangeClosed(1, 200)
+                .mapToObj(id -> EventChange.of(id, EventChangedEvent.Type.CREATED))
+                .collect(Collectors.toList()));
+        EventChangeRelay node1 = relay();
+        EventChangeRelay node2 = relay();
+
+        CompletableFuture.allOf(CompletableFuture.runAsync(node1::relay), CompletableFuture.runAsync(node2::relay)).join();
+        node1.relay();
+
+        List<Long> sequences = eventChangeRepository.findAll().stream()
+                .map(EventChange::getSequence)
+                .sorted()
+                .collect(Collectors.toList());
+        assertThat(sequences).containsExactlyElementsOf(LongStream.rangeClosed(1, 200).boxed().collect(Collectors.toList()));
+        assertThat(node1.getLastSequence()).isEqualTo(200);
+        assertThat(eventChangeSequenceRepository.findById(EventChangeSequence.ID).orElseThrow().getLastSequence()).isEqualTo(200);
+    }
+
+    @DisplayName("변경 내역을 기다리던 요청들을 깨울 때 같은 since끼리는 한 번만 조회하는 테스트")
+    @Test
+    public void wakesUpWaitersWithOneQueryPerSince() {
+        EventChangeRepository repository = mock(EventChangeRepository.class, AdditionalAnswers.delegatesTo(eventChangeRepository));
+        EventChangeRelay relay = relay(repository);
+        relay.relay();
+        long since = relay.getLastSequence();
+
+        List<DeferredResult<ResponseEntity<?>>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+            int limit = i + 1;
+            relay.await(i % 2 == 0 ? since : since + 1, limit, result, changes -> ResponseEntity.ok(changes.size() + "/" + limit));
+            results.add(result);
+        }
+        eventChangeRepository.saveAll(IntStream.rangeClosed(1, 10)
+                .mapToObj(id -> EventChange.of(id, EventChangedEvent.Type.UPDATED))
+                .collect(Collectors.toList()));
+        relay.relay();
+
+        assertThat(results).extracting(result -> (Object) ((ResponseEntity<?>) result.getResult()).getBody())
+                .containsExactly("1/1", "2/2", "3/3", "4/4", "5/5", "6/6");
+        verify(repository, times(2)).findBySequenceGreaterThanOrderBySequenceAsc(anyLong(), any());
+    }
+
+    @DisplayName("이미 발행된 순번을 기다리는 요청은 릴레이 스레드에서 깨우고, 깨운 뒤에도 대기 요청 수 제한이 맞게 유지되는 테스트")
+    @Test
+    public void wakesUpWaitersBehindOnRelayThread() throws Exception {
+        EventChangeRelay relay = relay();
+        relay.properties.setMaxWaiters(2);
+        eventChangeRepository.saveAll(IntStream.rangeClosed(1, 3)
+                .mapToObj(id -> EventChange.of(id, EventChangedEvent.Type.CREATED))
+                .collect(Collectors.toList()));
+        relay.relay();
+        long last = relay.getLastSequence();
+
+        for (int i = 0; i < 10; i++) {
+            CompletableFuture<String> thread = new CompletableFuture<>();
+            DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+            result.setResultHandler(value -> thread.complete(Thread.currentThread().getName()));
+            assertThat(relay.await(last - 1, 10, result, changes -> ResponseEntity.ok(changes.size()))).isTrue();
+            assertThat(thread.get(5, TimeUnit.SECONDS)).isEqualTo("event-change-relay");
+            assertThat(((ResponseEntity<?>) result.getResult()).getBody()).isEqualTo(1);
+        }
+
+        assertThat(relay.await(last, 10, new DeferredResult<>(), changes -> ResponseEntity.ok(changes.size()))).isTrue();
+        assertThat(relay.await(last, 10, new DeferredResult<>(), changes -> ResponseEntity.ok(changes.size()))).isTrue();
+        assertThat(relay.await(last, 10, new DeferredResult<>(), changes -> ResponseEntity.ok(changes.size()))).isFalse();
+        relay.stop();
+    }
+
+    private EventChangeRelay relay() {
+        return relay(eventChangeRepository);
+    }
+
+    private EventChangeRelay relay(EventChangeRepository repository) {
+        EventOutboxProperties properties = new EventOutboxProperties();
+        properties.setBatchSize(7);
+        EventChangeRelay relay = new EventChangeRelay();
+        relay.eventChangeRepository = repository;
+        relay.eventChangeSequenceRepository = eventChangeSequenceRepository;
+        relay.properties = properties;
+        relay.transactionManager = transactionManager;
+        relay.init();
+        return relay;
+    }
+}
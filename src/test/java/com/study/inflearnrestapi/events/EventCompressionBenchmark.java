@@ -0,0 +1,26 @@
+package com.study.inflearnrestapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.inflearnrestapi.common.Benchmarks;
+import com.study.inflearnrestapi.common.PrecompressedBody;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventCompressionBenchmark {
+
+    @Test
+    public void gzipPages() throws Exception {
+        ObjectMapper objectMapper = EventFixtures.streamingObjectMapper();
+
+        for (int size : new int[] {1, 20, 100, 1000}) {
+            byte[] page = objectMapper.writeValueAsBytes(EventFixtures.page(size));
+            byte[] gzip = PrecompressedBody.gzip(page);
+            System.out.printf("page=%d bytes on the wire: identity=%d B, gzip=%d B (%.1f%%)%n",
+                    size, page.length, gzip.length, 100.0 * gzip.length / page.length);
+            assertThat(gzip.length).isLessThan(page.length);
+
+            Benchmarks.measure("gzip page=" + size, Math.max(200, 20_000 / size), () -> PrecompressedBody.gzip(page));
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.study.inflearnrestapi.events;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.study.inflearnrestapi.accounts.Account;
 import com.study.inflearnrestapi.accounts.AccountRepository;
 import com.study.inflearnrestapi.accounts.AccountRole;
 import com.study.inflearnrestapi.accounts.AccountService;
 import com.study.inflearnrestapi.common.AppProperties;
 import com.study.inflearnrestapi.common.BaseTest;
+import com.study.inflearnrestapi.common.IdempotencyFilter;
+import com.study.inflearnrestapi.common.JsonMergePatch;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,12 +20,22 @@ import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.restdocs.headers.HeaderDocumentation.*;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
@@ -44,6 +60,15 @@ public class EventControllerTests extends BaseTest {
     @Autowired
     AppProperties appProperties;
 
+    @Autowired
+    EventChangeRelay eventChangeRelay;
+
+    @Autowired
+    EventChangeRepository eventChangeRepository;
+
+    @Autowired
+    EventUpdateQueue eventUpdateQueue;
+
     @BeforeEach
     public void setUp() {
         this.eventRepository.deleteAll();
@@ -131,6 +156,174 @@ public class EventControllerTests extends BaseTest {
                 ));
     }
 
+    @DisplayName("같은 Idempotency-Key로 다시 생성 요청하면 처음 응답을 돌려받는 테스트")
+    @Test
+    public void createEvent_idempotent() throws Exception {
+        String bearerToken = getBearerToken(true);
+        String idempotencyKey = UUID.randomUUID().toString();
+        String body = objectMapper.writeValueAsString(buildEventDto("idempotent"));
+
+        MvcResult first = mockMvc.perform(post("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON_VALUE)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED))
+                .andReturn();
+
+        mockMvc.perform(post("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON_VALUE)
+                        .content(body))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, first.getResponse().getHeader(HttpHeaders.LOCATION)))
+                .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(content().string(first.getResponse().getContentAsString()))
+                .andDo(document("create-event-idempotent",
+                        requestHeaders(
+                                headerWithName(IdempotencyFilter.IDEMPOTENCY_KEY).description("client chosen key of the request, at most 255 characters")
+                        ),
+                        responseHeaders(
+                                headerWithName(IdempotencyFilter.IDEMPOTENT_REPLAYED).description("present when the stored response of an earlier request is returned")
+                        )
+                ));
+
+        mockMvc.perform(post("/api/events")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaTypes.HAL_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(buildEventDto("another"))))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertThat(this.eventRepository.count()).isEqualTo(1);
+    }
+
+    @DisplayName("같은 Idempotency-Key로 동시에 생성 요청하면 이벤트가 한 번만 생성되는 테스트")
+    @Test
+    public void createEvent_idempotent_concurrent() throws Exception {
+        String bearerToken = getBearerToken(true);
+        String idempotencyKey = UUID.randomUUID().toString();
+        String body = objectMapper.writeValueAsString(buildEventDto("concurrent"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<MvcResult>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> mockMvc.perform(post("/api/events")
+                                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                                .header(IdempotencyFilter.IDEMPOTENCY_KEY, idempotencyKey)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaTypes.HAL_JSON_VALUE)
+                                .content(body))
+                        .andReturn()));
+            }
+            Set<String> locations = new HashSet<>();
+            for (Future<MvcResult> result : results) {
+                assertThat(result.get().getResponse().getStatus()).isEqualTo(201);
+                locations.add(result.get().getResponse().getHeader(HttpHeaders.LOCATION));
+            }
+            assertThat(locations).hasSize(1);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(this.eventRepository.count()).isEqualTo(1);
+    }
+
+    @DisplayName("CBOR 형식으로 이벤트를 생성하고 조회하는 테스트")
+    @Test
+    public void createAndGetEventWithCbor() throws Exception {
+
+        // Given
+        ObjectMapper cborMapper = new CBORMapper().registerModule(new JavaTimeModule());
+        EventDto event = EventDto.builder()
+                .name("name")
+                .description("description")
+                .beginEnrollmentDateTime(LocalDateTime.of(2021, 8, 01, 8, 30, 00))
+                .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 31, 5, 30, 00))
+                .beginEventDateTime(LocalDateTime.of(2021, 8, 01, 8, 30, 00))
+                .endEventDateTime(LocalDateTime.of(2021, 8, 31, 5, 30, 00))
+                .location("location")
+                .basePrice(1000)
+                .maxPrice(2000)
+                .limitOfEnrollment(1000)
+                .build();
+
+        // When
+        byte[] created = this.mockMvc.perform(post("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, getBearerToken(true))
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(cborMapper.writeValueAsBytes(event)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode createdEvent = cborMapper.readTree(created);
+        assertThat(createdEvent.get("name").asText()).isEqualTo("name");
+        assertThat(createdEvent.get("offline").asBoolean()).isTrue();
+        assertThat(createdEvent.at("/_links/self/href").isTextual()).isTrue();
+
+        byte[] page = this.mockMvc.perform(get("/api/events")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode eventPage = cborMapper.readTree(page);
+        assertThat(eventPage.at("/_embedded/eventList/0/id").asInt()).isEqualTo(createdEvent.get("id").asInt());
+        assertThat(eventPage.at("/page/totalElements").asInt()).isEqualTo(1);
+    }
+
+    @DisplayName("이벤트 생성 후 변경 내역을 롱 폴링으로 조회하기")
+    @Test
+    public void queryEventChanges() throws Exception {
+
+        // Given
+        long since = this.eventChangeRelay.getLastSequence();
+        EventDto event = EventDto.builder()
+                .name("name")
+                .description("description")
+                .beginEnrollmentDateTime(LocalDateTime.of(2021, 8, 01, 8, 30, 00))
+                .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 31, 5, 30, 00))
+                .beginEventDateTime(LocalDateTime.of(2021, 8, 01, 8, 30, 00))
+                .endEventDateTime(LocalDateTime.of(2021, 8, 31, 5, 30, 00))
+                .basePrice(1000)
+                .maxPrice(2000)
+                .limitOfEnrollment(1000)
+                .build();
+        String created = this.mockMvc.perform(post("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, getBearerToken(true))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(event)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        int eventId = this.objectMapper.readTree(created).get("id").asInt();
+
+        // When
+        MvcResult mvcResult = this.mockMvc.perform(get("/api/events/changes")
+                .param("since", String.valueOf(since))
+                .param("waitMs", "5000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        this.mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventChangeList[?(@.eventId == " + eventId + ")].type").value("CREATED"))
+                .andExpect(jsonPath("_links.next").exists())
+                .andExpect(jsonPath("_links.profile").exists())
+        ;
+    }
+
     @DisplayName("입력 받을 수 없는 값을 사용한 경우에 에러가 발생하는 테스트")
     @Test
     public void createEvent_bad_request() throws Exception {
@@ -205,6 +398,36 @@ public class EventControllerTests extends BaseTest {
         ;
     }
 
+    @DisplayName("요청 본문을 읽는 중에 첫 번째 잘못된 값에서 에러가 발생하는 테스트")
+    @Test
+    public void createEvent_bad_request_unreadable_input() throws Exception {
+        mockMvc.perform(post("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, getBearerToken(true))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON_VALUE)
+                .content("{\"name\":\"name\",\"basePrice\":\"abc\",\"maxPrice\":-1,\"free\":true}"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors.length()").value(1))
+                .andExpect(jsonPath("errors[0].objectName").value("eventDto"))
+                .andExpect(jsonPath("errors[0].field").value("basePrice"))
+                .andExpect(jsonPath("errors[0].code").value("typeMismatch"))
+                .andExpect(jsonPath("errors[0].rejectedValue").value("abc"))
+                .andExpect(jsonPath("_links.index").exists())
+        ;
+
+        mockMvc.perform(post("/api/events")
+                .header(HttpHeaders.AUTHORIZATION, getBearerToken(false))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaTypes.HAL_JSON_VALUE)
+                .content("{\"name\":\"name\",\"free\":true,\"maxPrice\":-1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors.length()").value(1))
+                .andExpect(jsonPath("errors[0].field").value("free"))
+                .andExpect(jsonPath("errors[0].code").value("unknownProperty"))
+        ;
+    }
+
     @DisplayName("30개의 이벤트를 10개씩 두번째 페이지 조회하기")
     @Test
     public void queryEvents() throws Exception {
@@ -225,6 +448,11 @@ public class EventControllerTests extends BaseTest {
                 .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
                 .andExpect(jsonPath("_links.self").exists())
                 .andExpect(jsonPath("_links.profile").exists())
+                .andExpect(jsonPath("facets.eventStatus.DRAFT").value(30))
+                .andExpect(jsonPath("facets.eventStatus.PUBLISHED").value(0))
+                .andExpect(jsonPath("facets.free.false").value(30))
+                .andExpect(jsonPath("facets.offline.true").value(30))
+                .andExpect(jsonPath("facets.basePrice['1-9999']").value(30))
                 .andDo(document("query-events"))
         ;
     }
@@ -253,6 +481,78 @@ public class EventControllerTests extends BaseTest {
         ;
     }
 
+    @DisplayName("좌표를 기준으로 가까운 이벤트를 거리순으로 조회하기")
+    @Test
+    public void nearbyEvents() throws Exception {
+
+        // Given
+        this.generateEvent(1, 37.5665, 126.9780);
+        this.generateEvent(2, 37.4563, 126.7052);
+        this.generateEvent(3, 35.1796, 129.0756);
+        this.generateEvent(4);
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/nearby")
+                .param("lat", "37.5547")
+                .param("lon", "126.9707")
+                .param("radiusKm", "50"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(2))
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("name_1"))
+                .andExpect(jsonPath("_embedded.eventList[1].name").value("name_2"))
+                .andExpect(jsonPath("_links.self.href").value("http://localhost:8080/api/events/nearby?lat=37.5547&lon=126.9707&radiusKm=50.0&size=10"))
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("nearby-events"))
+        ;
+
+        this.mockMvc.perform(get("/api/events/nearby")
+                .param("lat", "35.1")
+                .param("lon", "129.0")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(1))
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("name_3"))
+        ;
+
+        this.mockMvc.perform(get("/api/events/nearby")
+                .param("lat", "35.1")
+                .param("lon", "129.0")
+                .param("size", "101"))
+                .andExpect(status().isBadRequest())
+        ;
+    }
+
+    @DisplayName("공개된 이벤트를 시작 시간 순서로 조회하기")
+    @Test
+    public void upcomingEvents() throws Exception {
+
+        // Given
+        this.generateEvent(1, EventStatus.PUBLISHED, LocalDateTime.now().plusDays(3));
+        this.generateEvent(2, EventStatus.BEGAN_ENROLLMENT, LocalDateTime.now().plusDays(1));
+        this.generateEvent(3, EventStatus.DRAFT, LocalDateTime.now().plusDays(2));
+        this.generateEvent(4, EventStatus.PUBLISHED, LocalDateTime.now().minusDays(10));
+        this.generateEvent(5, EventStatus.PUBLISHED, LocalDateTime.now().plusDays(5));
+
+        // When & Then
+        this.mockMvc.perform(get("/api/events/upcoming")
+                .param("size", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(2))
+                .andExpect(jsonPath("_embedded.eventList[0].name").value("name_2"))
+                .andExpect(jsonPath("_embedded.eventList[1].name").value("name_1"))
+                .andExpect(jsonPath("_links.self.href").value("http://localhost:8080/api/events/upcoming?size=2"))
+                .andExpect(jsonPath("_links.profile").exists())
+                .andDo(document("upcoming-events"))
+        ;
+
+        this.mockMvc.perform(get("/api/events/upcoming")
+                .param("size", "0"))
+                .andExpect(status().isBadRequest())
+        ;
+    }
+
     @DisplayName("기존의 이벤트를 하나 조회하기")
     @Test
     public void getEvent() throws Exception {
@@ -271,6 +571,34 @@ public class EventControllerTests extends BaseTest {
         ;
     }
 
+    @DisplayName("이벤트 상태 변경을 SSE로 전달받기")
+    @Test
+    public void streamEvent() throws Exception {
+
+        // Given
+        Account account = this.createAccount();
+        Event event = this.generateEvent(100, account);
+
+        // When
+        MvcResult mvcResult = this.mockMvc.perform(get("/api/events/{id}/stream", event.getId()))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk())
+                .andReturn();
+
+        event.setEventStatus(EventStatus.PUBLISHED);
+        this.eventRepository.save(event);
+
+        // Then
+        String content = "";
+        for (int i = 0; i < 100 && !content.contains(EventStatus.PUBLISHED.name()); i++) {
+            Thread.sleep(50);
+            content = mvcResult.getResponse().getContentAsString();
+        }
+        assertThat(content).contains("event:event-status");
+        assertThat(content).contains("\"eventStatus\":\"DRAFT\"");
+        assertThat(content).contains("\"eventStatus\":\"PUBLISHED\"");
+    }
+
     @DisplayName("없는 이벤트는 조회했을 때 404 응답받기")
     @Test
     public void getEvent404() throws Exception {
@@ -305,6 +633,133 @@ public class EventControllerTests extends BaseTest {
         ;
     }
 
+    @DisplayName("JSON Merge Patch로 이벤트의 일부만 수정하기")
+    @Test
+    public void patchEvent() throws Exception {
+        // Given
+        Account account = this.createAccount();
+        Event event = this.generateEvent(100, account);
+
+        // When & Then
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, getBearerToken(false))
+                .contentType(JsonMergePatch.MEDIA_TYPE)
+                .content("{\"name\":\"Patched Event\",\"location\":null}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Patched Event"))
+                .andExpect(jsonPath("description").value(event.getDescription()))
+                .andExpect(jsonPath("offline").value(false))
+                .andExpect(jsonPath("_links.self").exists())
+                .andDo(document("patch-event",
+                        requestHeaders(
+                                headerWithName(HttpHeaders.CONTENT_TYPE).description("application/merge-patch+json")
+                        )
+                ));
+
+        Event patchedEvent = this.eventRepository.findById(event.getId()).orElseThrow();
+        assertThat(patchedEvent.getName()).isEqualTo("Patched Event");
+        assertThat(patchedEvent.getLocation()).isNull();
+        assertThat(patchedEvent.getBasePrice()).isEqualTo(event.getBasePrice());
+    }
+
+    @DisplayName("수정 결과가 잘못된 패치는 400, 바뀌는 값이 없는 패치는 저장 없이 200 응답받기")
+    @Test
+    public void patchEvent400WrongAndUnchanged() throws Exception {
+        // Given
+        Account account = this.createAccount();
+        Event event = this.generateEvent(100, account);
+        String bearerToken = getBearerToken(false);
+
+        // When & Then
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .contentType(JsonMergePatch.MEDIA_TYPE)
+                .content("{\"basePrice\":20000,\"maxPrice\":200}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0].code").exists());
+
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .contentType(JsonMergePatch.MEDIA_TYPE)
+                .content("{\"unknown\":1}"))
+                .andExpect(status().isBadRequest());
+
+        long changes = this.eventChangeRepository.count();
+        this.mockMvc.perform(patch("/api/events/{id}", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .contentType(JsonMergePatch.MEDIA_TYPE)
+                .content("{\"name\":\"" + event.getName() + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value(event.getName()));
+        assertThat(this.eventChangeRepository.count()).isEqualTo(changes);
+
+        Event unchangedEvent = this.eventRepository.findById(event.getId()).orElseThrow();
+        assertThat(unchangedEvent.getBasePrice()).isEqualTo(event.getBasePrice());
+        assertThat(unchangedEvent.getMaxPrice()).isEqualTo(event.getMaxPrice());
+    }
+
+    @DisplayName("이벤트를 비동기로 수정하고 처리 상태를 조회하기")
+    @Test
+    public void updateEventAsync() throws Exception {
+        // Given
+        Account account = this.createAccount();
+        Event event = this.generateEvent(100, account);
+        String bearerToken = getBearerToken(false);
+
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        eventDto.setName("Updated Event 1");
+        this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(this.objectMapper.writeValueAsString(eventDto)));
+
+        eventDto.setName("Updated Event 2");
+
+        // When
+        MvcResult result = this.mockMvc.perform(put("/api/events/{id}", event.getId())
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(this.objectMapper.writeValueAsString(eventDto)))
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andExpect(jsonPath("eventId").value(event.getId()))
+                .andExpect(jsonPath("completion").doesNotExist())
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.event").exists())
+                .andReturn();
+        String ticketId = this.objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+
+        // Then
+        assertThat(this.eventUpdateQueue.getTicket(ticketId).orElseThrow().completion().get(5, TimeUnit.SECONDS))
+                .isEqualTo(EventUpdateTicket.Status.APPLIED);
+        this.mockMvc.perform(get(result.getResponse().getHeader(HttpHeaders.LOCATION)))
+                .andExpect(jsonPath("status").value("APPLIED"));
+
+        this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(jsonPath("name").value("Updated Event 2"));
+    }
+
+    @DisplayName("비동기 수정을 반영하기 전에 이벤트가 없어지면 NOT_FOUND 상태가 되는 테스트")
+    @Test
+    public void updateEventAsyncNotFound() throws Exception {
+        // Given
+        Event event = this.generateEvent(100);
+        EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+        EventUpdateTicket ticket = this.eventUpdateQueue.submit(event.getId(), eventDto).orElseThrow();
+        EventUpdateTicket missing = this.eventUpdateQueue.submit(Integer.MAX_VALUE, eventDto).orElseThrow();
+
+        // When
+        this.eventUpdateQueue.flush();
+
+        // Then
+        assertThat(ticket.completion().get(5, TimeUnit.SECONDS)).isEqualTo(EventUpdateTicket.Status.APPLIED);
+        assertThat(missing.completion().get(5, TimeUnit.SECONDS)).isEqualTo(EventUpdateTicket.Status.NOT_FOUND);
+    }
+
     @DisplayName("입력값이 비어있는 경우에 이벤트 수정 실패")
     @Test
     public void updateEvent400Empty() throws Exception {
@@ -365,6 +820,21 @@ public class EventControllerTests extends BaseTest {
         return this.eventRepository.save(event);
     }
 
+    private Event generateEvent(int index, double latitude, double longitude) {
+        Event event = buildEvent(index);
+        event.setLatitude(latitude);
+        event.setLongitude(longitude);
+        return this.eventRepository.save(event);
+    }
+
+    private Event generateEvent(int index, EventStatus eventStatus, LocalDateTime beginEventDateTime) {
+        Event event = buildEvent(index);
+        event.setEventStatus(eventStatus);
+        event.setBeginEventDateTime(beginEventDateTime);
+        event.setEndEventDateTime(beginEventDateTime.plusDays(1));
+        return this.eventRepository.save(event);
+    }
+
     private Event generateEvent(int index) {
         Event event = buildEvent(index);
         return this.eventRepository.save(event);
@@ -388,6 +858,21 @@ public class EventControllerTests extends BaseTest {
                 .build();
     }
 
+    private EventDto buildEventDto(String name) {
+        return EventDto.builder()
+                .name(name)
+                .description("description")
+                .beginEnrollmentDateTime(LocalDateTime.of(2021, 8, 1, 8, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 31, 5, 30))
+                .beginEventDateTime(LocalDateTime.of(2021, 8, 1, 8, 30))
+                .endEventDateTime(LocalDateTime.of(2021, 8, 31, 5, 30))
+                .location("location")
+                .basePrice(1000)
+                .maxPrice(2000)
+                .limitOfEnrollment(1000)
+                .build();
+    }
+
     private String getBearerToken(boolean needToCreateAccount) throws Exception {
         return "Bearer " + getAccessToken(needToCreateAccount);
     }
@@ -0,0 +1,84 @@
+package com.study.inflearnrestapi.events;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.FieldError;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+public class EventDtoDeserializerTest {
+
+    static ObjectMapper beanObjectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    static ObjectMapper streamingObjectMapper(ObjectMapper objectMapper) {
+        return objectMapper.copy().registerModule(new SimpleModule().addDeserializer(EventDto.class, new EventDtoDeserializer(EventValidatorTest.eventValidator)));
+    }
+
+    @DisplayName("기존 방식과 같은 EventDto를 읽는 테스트")
+    @Test
+    public void sameAsBeanDeserializer() throws Exception {
+        EventDto eventDto = EventValidatorTest.validEventDto();
+        eventDto.setLatitude(37.5);
+        eventDto.setLongitude(127.0);
+
+        ObjectMapper json = beanObjectMapper();
+        String body = json.writeValueAsString(eventDto);
+        assertThat(streamingObjectMapper(json).readValue(body, EventDto.class))
+                .isEqualTo(json.readValue(body, EventDto.class))
+                .isEqualTo(eventDto);
+
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        byte[] cborBody = cbor.writeValueAsBytes(eventDto);
+        assertThat(streamingObjectMapper(cbor).readValue(cborBody, EventDto.class)).isEqualTo(eventDto);
+    }
+
+    @DisplayName("첫 번째 잘못된 필드에서 읽기를 멈추는 테스트")
+    @Test
+    public void stopsAtFirstError() {
+        ObjectMapper objectMapper = streamingObjectMapper(beanObjectMapper());
+
+        InvalidEventDtoException e = catchThrowableOfType(
+                () -> objectMapper.readValue("{\"name\":\"\",\"basePrice\":-1,\"description\":", EventDto.class),
+                InvalidEventDtoException.class);
+
+        assertThat(e.getErrors().getErrorCount()).isEqualTo(1);
+        FieldError error = e.getErrors().getFieldError();
+        assertThat(error.getObjectName()).isEqualTo("eventDto");
+        assertThat(error.getField()).isEqualTo("name");
+        assertThat(error.getCode()).isEqualTo("NotEmpty");
+        assertThat(error.getDefaultMessage()).isEqualTo(EventValidatorTest.eventValidator.message("name", ""));
+    }
+
+    @DisplayName("알 수 없는 필드와 잘못된 타입을 거부하는 테스트")
+    @Test
+    public void rejectsUnknownPropertyAndWrongType() {
+        ObjectMapper objectMapper = streamingObjectMapper(beanObjectMapper());
+
+        InvalidEventDtoException unknown = catchThrowableOfType(
+                () -> objectMapper.readValue("{\"id\":100}", EventDto.class), InvalidEventDtoException.class);
+        assertThat(unknown.getErrors().getFieldError().getField()).isEqualTo("id");
+        assertThat(unknown.getErrors().getFieldError().getCode()).isEqualTo("unknownProperty");
+
+        InvalidEventDtoException wrongType = catchThrowableOfType(
+                () -> objectMapper.readValue("{\"endEventDateTime\":\"tomorrow\"}", EventDto.class), InvalidEventDtoException.class);
+        assertThat(wrongType.getErrors().getFieldError().getCode()).isEqualTo("typeMismatch");
+        assertThat(wrongType.getErrors().getFieldError().getRejectedValue()).isEqualTo("tomorrow");
+
+        InvalidEventDtoException notObject = catchThrowableOfType(
+                () -> objectMapper.readValue("[]", EventDto.class), InvalidEventDtoException.class);
+        assertThat(notObject.getErrors().getGlobalError().getCode()).isEqualTo("typeMismatch");
+    }
+}
@@ -0,0 +1,43 @@
+package com.study.inflearnrestapi.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class EventFacetsTest {
+
+    @DisplayName("다시 집계하는 동안 들어온 변경을 새 집계에 다시 반영하는 테스트")
+    @Test
+    public void replaysChangesDuringReconcile() {
+        EventFacets eventFacets = new EventFacets();
+        eventFacets.eventService = mock(EventService.class);
+        given(eventFacets.eventService.findFacetRows()).willAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[]{1, EventStatus.DRAFT, true, false, 0});
+            rows.add(new Object[]{2, EventStatus.DRAFT, true, false, 0});
+            // Committed after the rows above were read
+            eventFacets.onEventChanged(new EventChangedEvent(Event.builder()
+                    .id(1).eventStatus(EventStatus.PUBLISHED).basePrice(20000).build(), EventChangedEvent.Type.UPDATED));
+            eventFacets.onEventChanged(new EventChangedEvent(Event.builder().id(2).build(), EventChangedEvent.Type.DELETED));
+            return rows;
+        });
+
+        eventFacets.reconcile();
+
+        assertThat(eventFacets.snapshot().get("eventStatus"))
+                .containsEntry("DRAFT", 0L)
+                .containsEntry("PUBLISHED", 1L);
+        assertThat(eventFacets.snapshot().get("basePrice"))
+                .containsEntry("0", 0L)
+                .containsEntry("10000-49999", 1L);
+
+        eventFacets.reconcile();
+        assertThat(eventFacets.snapshot().get("eventStatus")).containsEntry("DRAFT", 0L).containsEntry("PUBLISHED", 1L);
+    }
+}
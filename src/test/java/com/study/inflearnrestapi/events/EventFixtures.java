@@ -0,0 +1,87 @@
+package com.study.inflearnrestapi.events;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.study.inflearnrestapi.accounts.Account;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Events, resources and object mappers shared by the serialization tests and benchmarks.
+ */
+final class EventFixtures {
+
+    private EventFixtures() {
+    }
+
+    static ObjectMapper halObjectMapper() {
+        return halObjectMapper(new JsonFactory());
+    }
+
+    static ObjectMapper halObjectMapper(JsonFactory jsonFactory) {
+        ObjectMapper objectMapper = new ObjectMapper(jsonFactory)
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .registerModule(new Jackson2HalModule());
+        objectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        return objectMapper;
+    }
+
+    static ObjectMapper streamingObjectMapper() {
+        return streamingObjectMapper(new JsonFactory());
+    }
+
+    static ObjectMapper streamingObjectMapper(JsonFactory jsonFactory) {
+        return halObjectMapper(jsonFactory).registerModule(new SimpleModule()
+                .addSerializer(EventResource.class, new EventResourceSerializer()));
+    }
+
+    static Event event(int index) {
+        Event event = Event.builder()
+                .id(index)
+                .name("name_" + index)
+                .description("description \"" + index + "\"")
+                .beginEnrollmentDateTime(LocalDateTime.of(2021, 8, 1, 8, 30, 0))
+                .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 31, 5, 30, 15))
+                .beginEventDateTime(LocalDateTime.of(2021, 8, 1, 8, 30, 0, 500))
+                .endEventDateTime(LocalDateTime.of(2021, 8, 31, 5, 30, 0))
+                .location("location")
+                .latitude(37.5665)
+                .longitude(126.978)
+                .basePrice(1000)
+                .maxPrice(2000)
+                .limitOfEnrollment(1000)
+                .eventStatus(EventStatus.PUBLISHED)
+                .manager(Account.builder().id(7).build())
+                .build();
+        event.update();
+        return event;
+    }
+
+    static EventResource eventResource(Event event) {
+        EventResource eventResource = new EventResource(event, Link.of("http://localhost/api/events/" + event.getId()));
+        eventResource.add(Link.of("/docs/index.html#resources-events-get").withRel("profile"));
+        return eventResource;
+    }
+
+    static PagedModel<EventResource> page(int size) {
+        List<EventResource> content = IntStream.range(0, size)
+                .mapToObj(i -> eventResource(event(i)))
+                .collect(Collectors.toList());
+        return PagedModel.of(content, new PagedModel.PageMetadata(size, 0, size * 10L),
+                Link.of("http://localhost/api/events?page=0&size=" + size));
+    }
+}
@@ -0,0 +1,38 @@
+package com.study.inflearnrestapi.events;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.study.inflearnrestapi.common.Benchmarks;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.PagedModel;
+
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventResourceSerializerBenchmark {
+
+    @Test
+    public void serializePages() throws Exception {
+        ObjectWriter reflective = EventFixtures.halObjectMapper().writer();
+        ObjectWriter streaming = EventFixtures.streamingObjectMapper().writer();
+
+        EventResource eventResource = EventFixtures.eventResource(EventFixtures.event(1));
+        Benchmarks.Result reflectiveItem = Benchmarks.measure("hal-module item", 50_000,
+                () -> reflective.writeValue(OutputStream.nullOutputStream(), eventResource));
+        Benchmarks.Result streamingItem = Benchmarks.measure("streaming item", 50_000,
+                () -> streaming.writeValue(OutputStream.nullOutputStream(), eventResource));
+        assertThat(streamingItem.getBytesPerOp()).isLessThan(reflectiveItem.getBytesPerOp());
+
+        for (int size : new int[] {20, 100, 1000}) {
+            PagedModel<EventResource> page = EventFixtures.page(size);
+            int iterations = Math.max(500, 100_000 / size);
+
+            Benchmarks.Result reflectiveResult = Benchmarks.measure("hal-module page=" + size, iterations,
+                    () -> reflective.writeValue(OutputStream.nullOutputStream(), page));
+            Benchmarks.Result streamingResult = Benchmarks.measure("streaming page=" + size, iterations,
+                    () -> streaming.writeValue(OutputStream.nullOutputStream(), page));
+
+            assertThat(streamingResult.getBytesPerOp()).isLessThan(reflectiveResult.getBytesPerOp());
+        }
+    }
+}
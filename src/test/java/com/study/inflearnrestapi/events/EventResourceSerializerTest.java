@@ -0,0 +1,88 @@
+package com.study.inflearnrestapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.study.inflearnrestapi.common.BaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares {@link EventResourceSerializer} with what the HAL module writes for the same event as a plain
+ * {@link EntityModel}, both through the ObjectMapper the application writes {@code application/hal+json} with.
+ */
+public class EventResourceSerializerTest extends BaseTest {
+
+    @Autowired
+    RequestMappingHandlerAdapter handlerAdapter;
+
+    private ObjectMapper halObjectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        this.halObjectMapper = this.handlerAdapter.getMessageConverters().stream()
+                .filter(AbstractJackson2HttpMessageConverter.class::isInstance)
+                .map(converter -> ((AbstractJackson2HttpMessageConverter) converter).getObjectMappersForType(EventResource.class).get(MediaTypes.HAL_JSON))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @DisplayName("이벤트 리소스를 HAL 모듈과 같은 JSON으로 쓰는 테스트")
+    @Test
+    public void sameOutputAsHalModule() throws Exception {
+        EventResource eventResource = EventFixtures.eventResource(EventFixtures.event(1));
+        eventResource.add(Link.of("http://localhost/api/events/1").withRel("update-event"));
+        eventResource.add(Link.of("http://localhost/api/events/1{?projection}").withRel("update-event").withTitle("templated"));
+
+        assertThat(this.halObjectMapper.getSerializerProviderInstance().findValueSerializer(EventResource.class))
+                .isInstanceOf(EventResourceSerializer.class);
+        assertSameJson(eventResource, halModel(eventResource));
+    }
+
+    @DisplayName("값이 없는 필드도 HAL 모듈과 같은 JSON으로 쓰는 테스트")
+    @Test
+    public void sameOutputForNullFields() throws Exception {
+        EventResource eventResource = EventFixtures.eventResource(Event.builder().id(2).eventStatus(null).build());
+
+        assertSameJson(eventResource, halModel(eventResource));
+    }
+
+    @DisplayName("페이지에 포함된 이벤트 리소스도 HAL 모듈과 같은 JSON으로 쓰는 테스트")
+    @Test
+    public void sameOutputForEmbeddedPage() throws Exception {
+        List<EventResource> content = IntStream.range(0, 5)
+                .mapToObj(i -> EventFixtures.eventResource(EventFixtures.event(i)))
+                .collect(Collectors.toList());
+        PagedModel.PageMetadata metadata = new PagedModel.PageMetadata(5, 0, 30);
+        Link self = Link.of("http://localhost/api/events?page=0");
+
+        assertSameJson(PagedModel.of(content, metadata, self),
+                PagedModel.of(content.stream().map(this::halModel).collect(Collectors.toList()), metadata, self));
+    }
+
+    private EntityModel<Event> halModel(EventResource eventResource) {
+        return EntityModel.of(eventResource.getContent(), eventResource.getLinks());
+    }
+
+    private void assertSameJson(Object value, Object halModuleValue) throws Exception {
+        String actual = this.halObjectMapper.writeValueAsString(value);
+        String expected = this.halObjectMapper.writeValueAsString(halModuleValue);
+
+        assertThat(this.halObjectMapper.readTree(actual).has("_links")).isTrue();
+        assertThat(this.halObjectMapper.readTree(actual)).isEqualTo(this.halObjectMapper.readTree(expected));
+    }
+}
@@ -0,0 +1,184 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.accounts.Account;
+import com.study.inflearnrestapi.accounts.AccountRole;
+import com.study.inflearnrestapi.accounts.AccountService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharded",
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:sharded",
+        "my-app.events.sharding.enabled=true",
+        "my-app.events.sharding.ddl-auto=create-drop",
+        "my-app.events.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "my-app.events.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "my-app.events.sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1",
+        "my-app.events.sharding.shards[2].hikari.maximum-pool-size=4",
+        "my-app.events.outbox.relay-interval-ms=3600000"
+})
+public class EventShardsTest {
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    EventShards eventShards;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    EventChangeRelay eventChangeRelay;
+
+    @Autowired
+    EventChangeRepository eventChangeRepository;
+
+    @DisplayName("매니저별로 나뉘어 저장된 이벤트를 아이디로 찾고, 여러 샤드를 합쳐서 정렬된 페이지로 조회하는 테스트")
+    @Test
+    public void shardsEventsByManager() {
+        List<Account> managers = IntStream.range(0, 3)
+                .mapToObj(i -> accountService.saveAccount(Account.builder()
+                        .email("shard-manager" + i + "@email.com")
+                        .password("password")
+                        .roles(Set.of(AccountRole.USER))
+                        .build()))
+                .collect(Collectors.toList());
+
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Account manager = managers.get(i % managers.size());
+            Event event = event("event" + (char) ('a' + (i * 5) % 12), manager);
+            event.setBasePrice((i * 5) % 12 * 100);
+            event = eventService.createEvent(event);
+
+            int shard = eventShards.shardOfManager(manager);
+            assertThat(eventShards.shardOfEvent(event.getId())).isEqualTo(shard);
+            assertThat(shardJdbcTemplate(shard).queryForObject("select count(*) from event where id = ?", Integer.class, event.getId())).isOne();
+            events.add(event);
+        }
+
+        Event first = events.get(0);
+        Event found = eventService.findEventForUpdate(first.getId()).orElseThrow();
+        assertThat(found.getName()).isEqualTo(first.getName());
+        assertThat(found.getManager()).isEqualTo(first.getManager());
+
+        found.setName("renamed");
+        eventService.updateEvent(found);
+        assertThat(eventService.findEventForUpdate(first.getId()).orElseThrow().getName()).isEqualTo("renamed");
+        first.setName("renamed");
+
+        Page<Event> page = eventShards.findAll(PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "basePrice")));
+        List<Integer> expected = events.stream()
+                .sorted(Comparator.comparing(Event::getBasePrice).reversed())
+                .skip(5).limit(5)
+                .map(Event::getId)
+                .collect(Collectors.toList());
+        assertThat(page.getTotalElements()).isEqualTo(12);
+        assertThat(page.getContent()).extracting(Event::getId).containsExactlyElementsOf(expected);
+
+        assertThat(eventService.canSort(Sort.by("beginEventDateTime", "latitude"))).isTrue();
+        assertThat(eventService.canSort(Sort.by("name"))).isFalse();
+        assertThat(eventService.canSort(Sort.by("eventStatus"))).isFalse();
+        assertThatThrownBy(() -> eventShards.findAll(PageRequest.of(0, 5, Sort.by("name"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @DisplayName("이벤트와 같은 샤드 트랜잭션에 기록된 변경 내역을 릴레이가 메인 DB로 옮겨서 발행하는 테스트")
+    @Test
+    public void relaysChangesWrittenOnShards() {
+        Account manager = accountService.saveAccount(Account.builder()
+                .email("shard-outbox@email.com")
+                .password("password")
+                .roles(Set.of(AccountRole.USER))
+                .build());
+        Event event = eventService.createEvent(event("outbox", manager));
+        JdbcTemplate shard = shardJdbcTemplate(eventShards.shardOfEvent(event.getId()));
+        assertThat(shard.queryForObject("select count(*) from event_change where event_id = ? and type = 'CREATED'",
+                Integer.class, event.getId())).isOne();
+
+        eventChangeRelay.relay();
+
+        assertThat(shard.queryForObject("select count(*) from event_change", Integer.class)).isZero();
+        List<EventChange> changes = eventChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(0L, PageRequest.of(0, 1000));
+        assertThat(changes).filteredOn(change -> change.getEventId().equals(event.getId()))
+                .extracting(EventChange::getType)
+                .containsExactly(EventChangedEvent.Type.CREATED);
+        assertThat(changes).allMatch(change -> change.getSequence() != null);
+    }
+
+    @DisplayName("이미 샤드에 맞춰진 아이디 시퀀스는 그대로 두고, 다시 맞출 때도 뒤로 돌리지 않는 테스트")
+    @Test
+    public void alignsSequencesOnlyForward() {
+        JdbcTemplate shard1 = shardJdbcTemplate(1);
+        long next = nextSequenceValue(shard1);
+        assertThat(Math.floorMod(next, 3)).isOne();
+
+        eventShards.alignSequences();
+        assertThat(nextSequenceValue(shard1)).isEqualTo(next);
+
+        shard1.execute("alter sequence hibernate_sequence restart with 1000 increment by 1");
+        eventShards.alignSequences();
+        assertThat(nextSequenceValue(shard1)).isEqualTo(1000);
+        assertThat(shard1.queryForObject("select increment from information_schema.sequences where sequence_name = 'HIBERNATE_SEQUENCE'",
+                Long.class)).isEqualTo(3);
+    }
+
+    @DisplayName("샤드마다 자기 hikari 설정으로 커넥션 풀을 만드는 테스트")
+    @Test
+    public void bindsPoolSettingsPerShard() {
+        List<DataSource> dataSources = eventShards.dataSources();
+
+        assertThat(dataSources).allSatisfy(dataSource -> assertThat(dataSource).isInstanceOf(HikariDataSource.class));
+        assertThat(((HikariDataSource) dataSources.get(0)).getPoolName()).isEqualTo("event-shard-0");
+        assertThat(((HikariDataSource) dataSources.get(2)).getMaximumPoolSize()).isEqualTo(4);
+    }
+
+    private long nextSequenceValue(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("select current_value + increment from information_schema.sequences where sequence_name = 'HIBERNATE_SEQUENCE'",
+                Long.class);
+    }
+
+    private JdbcTemplate shardJdbcTemplate(int shard) {
+        return new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:shard" + shard + ";DB_CLOSE_DELAY=-1", "", ""));
+    }
+
+    private Event event(String name, Account manager) {
+        return Event.builder()
+                .name(name)
+                .description("sharded event")
+                .beginEnrollmentDateTime(LocalDateTime.of(2021, 8, 1, 8, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 31, 5, 30))
+                .beginEventDateTime(LocalDateTime.of(2021, 8, 1, 8, 30))
+                .endEventDateTime(LocalDateTime.of(2021, 8, 31, 5, 30))
+                .location("location")
+                .basePrice(1000)
+                .maxPrice(2000)
+                .limitOfEnrollment(100)
+                .eventStatus(EventStatus.DRAFT)
+                .manager(manager)
+                .build();
+    }
+}
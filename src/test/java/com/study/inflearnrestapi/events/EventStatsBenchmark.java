@@ -0,0 +1,33 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.common.Benchmarks;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventStatsBenchmark {
+
+    private static final int EVENTS = 2_000_000;
+
+    @Test
+    public void report() throws Exception {
+        List<Object[]> rows = EventStatsTest.rows(EVENTS);
+        EventStats eventStats = new EventStats();
+        eventStats.eventService = new EventService() {
+            @Override
+            public List<Object[]> findStatsRows() {
+                return rows;
+            }
+        };
+
+        Benchmarks.measure("EventStats.rebuild " + EVENTS, 10, eventStats::rebuild);
+        Benchmarks.Result report = Benchmarks.measure("EventStats.report " + EVENTS, 20,
+                () -> eventStats.report(new double[]{50, 90, 99}));
+        Benchmarks.measure("EventStats.onEventChanged", 200_000, () -> eventStats.onEventChanged(
+                new EventChangedEvent(Event.builder().id(EVENTS / 2).basePrice(1).build(), EventChangedEvent.Type.UPDATED)));
+
+        assertThat(report.getNanosPerOp()).isLessThan(1_000_000_000L);
+    }
+}
@@ -0,0 +1,139 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.accounts.Account;
+import com.study.inflearnrestapi.accounts.AccountRepository;
+import com.study.inflearnrestapi.accounts.AccountRole;
+import com.study.inflearnrestapi.accounts.AccountService;
+import com.study.inflearnrestapi.common.AppProperties;
+import com.study.inflearnrestapi.common.BaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
+import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.relaxedResponseFields;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class EventStatsControllerTest extends BaseTest {
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AppProperties appProperties;
+
+    @Autowired
+    EventStats eventStats;
+
+    @BeforeEach
+    public void setUp() {
+        this.eventRepository.deleteAll();
+        this.accountRepository.deleteAll();
+    }
+
+    @DisplayName("관리자가 이벤트 통계를 조회하는 테스트")
+    @Test
+    public void eventStats() throws Exception {
+        String accessToken = accessToken(appProperties.getAdminUsername(), appProperties.getAdminPassword(),
+                AccountRole.ADMIN, AccountRole.USER);
+        this.eventRepository.save(event(EventStatus.DRAFT, 0, 0, 10, 8));
+        this.eventRepository.save(event(EventStatus.PUBLISHED, 1000, 2000, 20, 8));
+        this.eventRepository.save(event(EventStatus.PUBLISHED, 3000, 5000, 30, 9));
+        this.eventStats.rebuild();
+
+        this.mockMvc.perform(get("/api/admin/event-stats")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .param("percentiles", "50", "90"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("count").value(3))
+                .andExpect(jsonPath("limitOfEnrollment").value(60))
+                .andExpect(jsonPath("basePrice.percentiles.p50").value(1000))
+                .andExpect(jsonPath("maxPrice.max").value(5000))
+                .andExpect(jsonPath("byEventStatus.PUBLISHED.count").value(2))
+                .andExpect(jsonPath("byBeginEventMonth.2021-08.limitOfEnrollment").value(30))
+                .andDo(document("event-stats",
+                        links(
+                                linkWithRel("self").description("link to self"),
+                                linkWithRel("profile").description("link to profile")
+                        ),
+                        requestParameters(
+                                parameterWithName("percentiles").description("percentiles (0-100) of basePrice and maxPrice to report, default 50,90,99")
+                        ),
+                        relaxedResponseFields(
+                                fieldWithPath("count").description("number of events"),
+                                fieldWithPath("limitOfEnrollment").description("sum of limitOfEnrollment"),
+                                fieldWithPath("basePrice").description("min, max, mean and percentiles of basePrice"),
+                                fieldWithPath("maxPrice").description("min, max, mean and percentiles of maxPrice"),
+                                fieldWithPath("byEventStatus").description("count and limitOfEnrollment by eventStatus"),
+                                fieldWithPath("byBeginEventMonth").description("count and limitOfEnrollment by month (yyyy-MM) of beginEventDateTime")
+                        )
+                ))
+        ;
+    }
+
+    @DisplayName("관리자가 아닌 사용자가 이벤트 통계를 조회하면 403 응답을 받는 테스트")
+    @Test
+    public void eventStats_forbidden() throws Exception {
+        String accessToken = accessToken(appProperties.getUserUsername(), appProperties.getUserPassword(), AccountRole.USER);
+
+        this.mockMvc.perform(get("/api/admin/event-stats")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isForbidden());
+        this.mockMvc.perform(get("/api/admin/event-stats"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private Event event(EventStatus eventStatus, int basePrice, int maxPrice, int limitOfEnrollment, int month) {
+        return Event.builder()
+                .name("event")
+                .description("event stats")
+                .beginEnrollmentDateTime(LocalDateTime.of(2021, month, 1, 8, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2021, month, 20, 8, 30))
+                .beginEventDateTime(LocalDateTime.of(2021, month, 21, 8, 30))
+                .endEventDateTime(LocalDateTime.of(2021, month, 28, 8, 30))
+                .basePrice(basePrice)
+                .maxPrice(maxPrice)
+                .limitOfEnrollment(limitOfEnrollment)
+                .eventStatus(eventStatus)
+                .build();
+    }
+
+    private String accessToken(String username, String password, AccountRole... roles) throws Exception {
+        this.accountService.saveAccount(Account.builder()
+                .email(username)
+                .password(password)
+                .roles(Set.of(roles))
+                .build());
+
+        String responseBody = this.mockMvc.perform(post("/oauth/token")
+                .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                .param("username", username)
+                .param("password", password)
+                .param("grant_type", "password"))
+                .andReturn().getResponse().getContentAsString();
+        return new Jackson2JsonParser().parseMap(responseBody).get("access_token").toString();
+    }
+}
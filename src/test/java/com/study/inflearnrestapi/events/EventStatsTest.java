@@ -0,0 +1,144 @@
+package com.study.inflearnrestapi.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class EventStatsTest {
+
+    @DisplayName("상태별, 월별 집계와 가격 분포를 계산하는 테스트")
+    @Test
+    public void report() {
+        EventStats eventStats = new EventStats();
+        eventStats.onEventChanged(changed(3, EventStatus.DRAFT, 0, 0, 10, 2021, 8));
+        eventStats.onEventChanged(changed(1, EventStatus.PUBLISHED, 1000, 2000, 20, 2021, 8));
+        eventStats.onEventChanged(changed(2, EventStatus.PUBLISHED, 3000, 5000, 30, 2021, 9));
+        eventStats.onEventChanged(changed(4, EventStatus.BEGAN_ENROLLMENT, 2000, 4000, 40, 2022, 1));
+
+        EventStatsReport report = eventStats.report(new double[]{50, 100});
+
+        assertThat(report.getCount()).isEqualTo(4);
+        assertThat(report.getLimitOfEnrollment()).isEqualTo(100);
+        assertThat(report.getBasePrice().getMin()).isEqualTo(0);
+        assertThat(report.getBasePrice().getMax()).isEqualTo(3000);
+        assertThat(report.getBasePrice().getMean()).isEqualTo(1500.0);
+        assertThat(report.getBasePrice().getPercentiles()).containsEntry("p50", 1000).containsEntry("p100", 3000);
+        assertThat(report.getMaxPrice().getPercentiles()).containsEntry("p50", 2000);
+        assertThat(report.getByEventStatus().get("PUBLISHED").getCount()).isEqualTo(2);
+        assertThat(report.getByEventStatus().get("PUBLISHED").getLimitOfEnrollment()).isEqualTo(50);
+        assertThat(report.getByBeginEventMonth()).containsOnlyKeys("2021-08", "2021-09", "2022-01");
+        assertThat(report.getByBeginEventMonth().get("2021-08").getLimitOfEnrollment()).isEqualTo(30);
+    }
+
+    @DisplayName("다시 만드는 동안 들어온 변경을 새 스냅샷에 다시 반영하는 테스트")
+    @Test
+    public void replaysChangesDuringRebuild() {
+        EventStats eventStats = new EventStats();
+        eventStats.eventService = mock(EventService.class);
+        given(eventStats.eventService.findStatsRows()).willAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[]{1, EventStatus.DRAFT, 100, 100, 10, null});
+            rows.add(new Object[]{2, EventStatus.DRAFT, 200, 200, 20, null});
+            // Committed after the rows above were read
+            eventStats.onEventChanged(changed(1, EventStatus.PUBLISHED, 1000, 1000, 15, 2021, 8));
+            eventStats.onEventChanged(new EventChangedEvent(Event.builder().id(2).build(), EventChangedEvent.Type.DELETED));
+            eventStats.onEventChanged(changed(3, EventStatus.DRAFT, 300, 300, 30, 2021, 9));
+            return rows;
+        });
+
+        eventStats.rebuild();
+
+        EventStatsReport report = eventStats.report(new double[]{100});
+        assertThat(eventStats.size()).isEqualTo(2);
+        assertThat(report.getLimitOfEnrollment()).isEqualTo(45);
+        assertThat(report.getByEventStatus().get("PUBLISHED").getCount()).isEqualTo(1);
+        assertThat(report.getBasePrice().getMax()).isEqualTo(1000);
+    }
+
+    @DisplayName("이벤트 수정과 삭제를 스냅샷에 반영하는 테스트")
+    @Test
+    public void updateAndDelete() {
+        EventStats eventStats = new EventStats();
+        for (int id = 1; id <= 10; id++) {
+            eventStats.onEventChanged(changed(id, EventStatus.DRAFT, id * 100, id * 100, 1, 2021, 8));
+        }
+
+        eventStats.onEventChanged(changed(5, EventStatus.PUBLISHED, 10000, 10000, 5, 2021, 10));
+        eventStats.onEventChanged(new EventChangedEvent(Event.builder().id(1).build(), EventChangedEvent.Type.DELETED));
+        eventStats.onEventChanged(new EventChangedEvent(Event.builder().id(2).build(), EventChangedEvent.Type.DELETED));
+        eventStats.onEventChanged(new EventChangedEvent(Event.builder().id(3).build(), EventChangedEvent.Type.DELETED));
+
+        EventStatsReport report = eventStats.report(new double[]{100});
+        assertThat(eventStats.size()).isEqualTo(7);
+        assertThat(report.getCount()).isEqualTo(7);
+        assertThat(report.getLimitOfEnrollment()).isEqualTo(11);
+        assertThat(report.getBasePrice().getMin()).isEqualTo(400);
+        assertThat(report.getBasePrice().getMax()).isEqualTo(10000);
+        assertThat(report.getByEventStatus().get("PUBLISHED").getCount()).isEqualTo(1);
+        assertThat(report.getByBeginEventMonth().get("2021-10").getCount()).isEqualTo(1);
+
+        eventStats.onEventChanged(changed(2, EventStatus.DRAFT, 50, 50, 1, 2021, 8));
+        assertThat(eventStats.report(new double[]{0}).getBasePrice().getPercentiles()).containsEntry("p0", 50);
+    }
+
+    @DisplayName("병렬로 불러온 스냅샷이 순차 집계와 같은지 확인하는 테스트")
+    @Test
+    public void parallelLoad() {
+        int size = EventStats.PARALLEL_THRESHOLD * 5 + 7;
+        List<Object[]> rows = rows(size);
+        EventStats eventStats = new EventStats();
+        eventStats.eventService = new EventService() {
+            @Override
+            public List<Object[]> findStatsRows() {
+                return rows;
+            }
+        };
+
+        eventStats.rebuild();
+        EventStatsReport report = eventStats.report(new double[]{50});
+
+        long limitOfEnrollment = 0;
+        int[] basePrices = new int[size];
+        for (int i = 0; i < size; i++) {
+            limitOfEnrollment += (Integer) rows.get(i)[4];
+            basePrices[i] = (Integer) rows.get(i)[2];
+        }
+        Arrays.sort(basePrices);
+        assertThat(report.getCount()).isEqualTo(size);
+        assertThat(report.getLimitOfEnrollment()).isEqualTo(limitOfEnrollment);
+        assertThat(report.getByEventStatus().values().stream().mapToLong(EventStatsReport.Group::getCount).sum())
+                .isEqualTo(size);
+        assertThat(report.getBasePrice().getPercentiles().get("p50")).isEqualTo(basePrices[EventStats.rank(size, 50)]);
+    }
+
+    static List<Object[]> rows(int size) {
+        List<Object[]> rows = new ArrayList<>(size);
+        EventStatus[] statuses = EventStatus.values();
+        for (int id = 0; id < size; id++) {
+            rows.add(new Object[]{id, statuses[id % statuses.length], id % 50_000, id % 50_000 + 1000, id % 100,
+                    LocalDateTime.of(2020 + id % 3, 1 + id % 12, 1, 10, 0)});
+        }
+        return rows;
+    }
+
+    private static EventChangedEvent changed(int id, EventStatus status, int basePrice, int maxPrice, int limit,
+                                             int year, int month) {
+        Event event = Event.builder()
+                .id(id)
+                .eventStatus(status)
+                .basePrice(basePrice)
+                .maxPrice(maxPrice)
+                .limitOfEnrollment(limit)
+                .beginEventDateTime(LocalDateTime.of(year, month, 1, 10, 0))
+                .build();
+        return new EventChangedEvent(event, EventChangedEvent.Type.UPDATED);
+    }
+}
@@ -0,0 +1,139 @@
+package com.study.inflearnrestapi.events;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class EventUpcomingIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2021, 8, 1, 12, 0);
+
+    private EventUpcomingIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        this.index = new EventUpcomingIndex();
+        this.index.clock = clockAt(NOW);
+    }
+
+    @DisplayName("공개된 이벤트만 시작 시간, id 순서로 조회하는 테스트")
+    @Test
+    public void upcoming() {
+        this.index.onEventChanged(changed(event(1, EventStatus.PUBLISHED, NOW.plusDays(2))));
+        this.index.onEventChanged(changed(event(2, EventStatus.DRAFT, NOW.plusDays(1))));
+        this.index.onEventChanged(changed(event(3, EventStatus.BEGAN_ENROLLMENT, NOW.plusDays(1))));
+        this.index.onEventChanged(changed(event(4, EventStatus.PUBLISHED, NOW.plusDays(1))));
+        this.index.onEventChanged(changed(event(5, EventStatus.PUBLISHED, NOW.minusDays(3))));
+
+        assertThat(ids(this.index.upcoming(10))).containsExactly(3, 4, 1);
+        assertThat(ids(this.index.upcoming(2))).containsExactly(3, 4);
+    }
+
+    @DisplayName("수정과 삭제가 정렬 순서에 반영되는 테스트")
+    @Test
+    public void updateAndDelete() {
+        Event event = event(1, EventStatus.PUBLISHED, NOW.plusDays(1));
+        this.index.onEventChanged(changed(event));
+        this.index.onEventChanged(changed(event(2, EventStatus.PUBLISHED, NOW.plusDays(2))));
+
+        event.setBeginEventDateTime(NOW.plusDays(3));
+        event.setEndEventDateTime(NOW.plusDays(4));
+        event.setName("changed");
+        this.index.onEventChanged(changed(event));
+        List<Event> upcoming = this.index.upcoming(10);
+        assertThat(ids(upcoming)).containsExactly(2, 1);
+        assertThat(upcoming.get(1).getName()).isEqualTo("changed");
+
+        event.setName("not indexed yet");
+        assertThat(this.index.upcoming(10).get(1).getName()).isEqualTo("changed");
+
+        event.setEventStatus(EventStatus.DRAFT);
+        this.index.onEventChanged(changed(event));
+        this.index.onEventChanged(new EventChangedEvent(Event.builder().id(2).build(), EventChangedEvent.Type.DELETED));
+        assertThat(this.index.upcoming(10)).isEmpty();
+        assertThat(this.index.size()).isZero();
+    }
+
+    @DisplayName("종료된 이벤트는 조회에서 빠지고 정리되는 테스트")
+    @Test
+    public void prune() {
+        this.index.onEventChanged(changed(event(1, EventStatus.PUBLISHED, NOW.plusHours(1))));
+        this.index.onEventChanged(changed(event(2, EventStatus.PUBLISHED, NOW.plusDays(2))));
+
+        this.index.clock = clockAt(NOW.plusDays(1).plusHours(2));
+        assertThat(ids(this.index.upcoming(10))).containsExactly(2);
+        assertThat(this.index.size()).isEqualTo(2);
+
+        this.index.prune();
+        assertThat(this.index.size()).isEqualTo(1);
+        assertThat(ids(this.index.upcoming(10))).containsExactly(2);
+    }
+
+    @DisplayName("다른 노드에서 바뀐 이벤트를 발행된 변경 내역으로 따라가고, 변경 내역이 지워졌으면 다시 만드는 테스트")
+    @Test
+    public void followsOutbox() {
+        this.index.eventService = mock(EventService.class);
+        this.index.eventChangeRepository = mock(EventChangeRepository.class);
+        this.index.outboxProperties = new EventOutboxProperties();
+        given(this.index.eventChangeRepository.findMaxSequence()).willReturn(5L);
+        given(this.index.eventService.findEventsNotEnded(any(), any()))
+                .willReturn(List.of(event(2, EventStatus.PUBLISHED, NOW.plusDays(2))));
+        this.index.rebuild();
+
+        given(this.index.eventChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(eq(5L), any()))
+                .willReturn(List.of(change(6, 1), change(7, 2)));
+        given(this.index.eventService.findEventsById(Set.of(1, 2)))
+                .willReturn(List.of(event(1, EventStatus.PUBLISHED, NOW.plusDays(1)), event(2, EventStatus.DRAFT, NOW.plusDays(2))));
+        this.index.follow();
+        assertThat(ids(this.index.upcoming(10))).containsExactly(1);
+
+        given(this.index.eventChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(eq(7L), any()))
+                .willReturn(List.of(change(9, 3)));
+        given(this.index.eventChangeRepository.findMaxSequence()).willReturn(9L);
+        given(this.index.eventService.findEventsNotEnded(any(), any()))
+                .willReturn(List.of(event(3, EventStatus.PUBLISHED, NOW.plusDays(3))));
+        this.index.follow();
+        assertThat(ids(this.index.upcoming(10))).containsExactly(3);
+    }
+
+    private static EventChange change(long sequence, int eventId) {
+        EventChange change = EventChange.of(eventId, EventChangedEvent.Type.UPDATED);
+        change.setSequence(sequence);
+        return change;
+    }
+
+    private static Event event(int id, EventStatus eventStatus, LocalDateTime beginEventDateTime) {
+        return Event.builder()
+                .id(id)
+                .name("event " + id)
+                .eventStatus(eventStatus)
+                .beginEventDateTime(beginEventDateTime)
+                .endEventDateTime(beginEventDateTime.plusDays(1))
+                .build();
+    }
+
+    private static EventChangedEvent changed(Event event) {
+        return new EventChangedEvent(event, EventChangedEvent.Type.UPDATED);
+    }
+
+    private static List<Integer> ids(List<Event> events) {
+        return events.stream().map(Event::getId).collect(Collectors.toList());
+    }
+
+    private static Clock clockAt(LocalDateTime dateTime) {
+        return Clock.fixed(dateTime.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,34 @@
+package com.study.inflearnrestapi.events;
+
+import com.study.inflearnrestapi.common.Benchmarks;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventValidatorBenchmark {
+
+    @Test
+    public void successPath() throws Exception {
+        EventDto eventDto = EventValidatorTest.validEventDto();
+        EventValidator eventValidator = EventValidatorTest.eventValidator;
+
+        Benchmarks.measure("bean validation + legacy rules", 200_000, () -> {
+            Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+            EventValidatorTest.beanValidator.validate(eventDto, errors);
+            EventValidatorTest.legacyValidate(eventDto, errors);
+        });
+        Benchmarks.measure("EventValidator.validate with Errors", 200_000, () -> {
+            Errors errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+            eventValidator.validate(eventDto, errors);
+        });
+        Benchmarks.Result singlePass = Benchmarks.measure("EventValidator.isValid", 2_000_000, () -> {
+            if (!eventValidator.isValid(eventDto)) {
+                throw new AssertionError();
+            }
+        });
+
+        assertThat(singlePass.getBytesPerOp()).isLessThan(1);
+    }
+}
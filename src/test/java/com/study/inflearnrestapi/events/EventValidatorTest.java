@@ -0,0 +1,144 @@
+package com.study.inflearnrestapi.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventValidatorTest {
+
+    static final LocalValidatorFactoryBean beanValidator = new LocalValidatorFactoryBean();
+
+    static {
+        beanValidator.afterPropertiesSet();
+    }
+
+    static final EventValidator eventValidator = new EventValidator(beanValidator);
+
+    static EventDto validEventDto() {
+        return EventDto.builder()
+                .name("name")
+                .description("description")
+                .beginEnrollmentDateTime(LocalDateTime.of(2021, 8, 1, 8, 30, 0))
+                .closeEnrollmentDateTime(LocalDateTime.of(2021, 8, 31, 5, 30, 0))
+                .beginEventDateTime(LocalDateTime.of(2021, 8, 1, 8, 30, 0))
+                .endEventDateTime(LocalDateTime.of(2021, 8, 31, 5, 30, 0))
+                .location("location")
+                .basePrice(1000)
+                .maxPrice(2000)
+                .limitOfEnrollment(1000)
+                .build();
+    }
+
+    static Stream<Consumer<EventDto>> cases() {
+        return Stream.of(
+                d -> { },
+                d -> d.setName(null),
+                d -> d.setName(""),
+                d -> d.setDescription(""),
+                d -> d.setBeginEnrollmentDateTime(null),
+                d -> d.setEndEventDateTime(null),
+                d -> d.setBasePrice(-1),
+                d -> d.setLimitOfEnrollment(-1),
+                d -> { d.setName(null); d.setMaxPrice(-1); },
+                d -> { d.setBasePrice(2000); d.setMaxPrice(1000); },
+                d -> { d.setBasePrice(2000); d.setMaxPrice(0); },
+                d -> d.setEndEventDateTime(LocalDateTime.of(2021, 8, 1, 8, 29, 59)),
+                d -> d.setEndEventDateTime(LocalDateTime.of(2021, 8, 31, 5, 29, 59, 999_999_999)),
+                d -> d.setEndEventDateTime(d.getCloseEnrollmentDateTime()),
+                d -> { d.setLatitude(37.5); d.setLongitude(127.0); },
+                d -> d.setLatitude(37.5),
+                d -> { d.setLatitude(91.0); d.setLongitude(127.0); },
+                d -> { d.setLatitude(37.5); d.setLongitude(-181.0); }
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("cases")
+    public void sameResultAsBeanValidation(Consumer<EventDto> mutation) {
+        EventDto eventDto = validEventDto();
+        mutation.accept(eventDto);
+
+        Errors expected = new BeanPropertyBindingResult(eventDto, "eventDto");
+        beanValidator.validate(eventDto, expected);
+        if (!expected.hasErrors()) {
+            legacyValidate(eventDto, expected);
+        }
+
+        Errors actual = new BeanPropertyBindingResult(eventDto, "eventDto");
+        eventValidator.validate(eventDto, actual);
+
+        assertThat(eventValidator.isValid(eventDto)).isEqualTo(!expected.hasErrors());
+        assertThat(codes(actual)).isEqualTo(codes(expected));
+    }
+
+    @DisplayName("필수 값 오류 메시지를 요청 로케일에 맞는 Bean Validation 메시지로 알려주는 테스트")
+    @Test
+    public void localizedMessages() {
+        EventDto eventDto = validEventDto();
+        eventDto.setName(null);
+        eventDto.setBasePrice(-1);
+
+        try {
+            for (Locale locale : new Locale[] {Locale.ENGLISH, Locale.KOREAN}) {
+                LocaleContextHolder.setLocale(locale);
+                Errors expected = new BeanPropertyBindingResult(eventDto, "eventDto");
+                beanValidator.validate(eventDto, expected);
+                Errors actual = new BeanPropertyBindingResult(eventDto, "eventDto");
+                eventValidator.validate(eventDto, actual);
+
+                assertThat(codes(actual)).isEqualTo(codes(expected));
+                assertThat(eventValidator.message("name", "")).isEqualTo(expected.getFieldError("name").getDefaultMessage());
+            }
+            assertThat(eventValidator.message("name", "")).isNotEqualTo("must not be empty");
+        } finally {
+            LocaleContextHolder.resetLocaleContext();
+        }
+    }
+
+    /**
+     * The date and price rules as they were written before the single-pass validator.
+     */
+    static void legacyValidate(EventDto eventDto, Errors errors) {
+        if (eventDto.getBasePrice() > eventDto.getMaxPrice() && eventDto.getMaxPrice() != 0) {
+            errors.reject("wrongPrices", "Values to prices are wrong");
+        }
+
+        LocalDateTime endEventDateTime = eventDto.getEndEventDateTime();
+        if (endEventDateTime.isBefore(eventDto.getBeginEventDateTime()) || endEventDateTime.isBefore(eventDto.getCloseEnrollmentDateTime()) || endEventDateTime.isBefore(eventDto.getBeginEnrollmentDateTime())) {
+            errors.rejectValue("endEventDateTime", "wrongValue", "endEventDateTime is wrongValue");
+        }
+
+        Double latitude = eventDto.getLatitude();
+        Double longitude = eventDto.getLongitude();
+        if ((latitude == null) != (longitude == null)) {
+            errors.reject("wrongCoordinates", "latitude and longitude must be given together");
+        }
+        if (latitude != null && (latitude < -90 || latitude > 90)) {
+            errors.rejectValue("latitude", "wrongValue", "latitude is wrongValue");
+        }
+        if (longitude != null && (longitude < -180 || longitude > 180)) {
+            errors.rejectValue("longitude", "wrongValue", "longitude is wrongValue");
+        }
+    }
+
+    private static Set<String> codes(Errors errors) {
+        return errors.getAllErrors().stream()
+                .map(e -> (e instanceof FieldError ? ((FieldError) e).getField() + ":" : "") + e.getCode() + ":" + e.getDefaultMessage())
+                .collect(Collectors.toSet());
+    }
+}
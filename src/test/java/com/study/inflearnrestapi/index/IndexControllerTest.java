@@ -2,8 +2,10 @@ package com.study.inflearnrestapi.index;
 
 import com.study.inflearnrestapi.common.BaseTest;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -16,4 +18,26 @@ public class IndexControllerTest extends BaseTest {
                 .andExpect(jsonPath("_links.events").exists())
         ;
     }
+
+    @Test
+    public void indexNotModified() throws Exception {
+        String etag = this.mockMvc.perform(get("/api"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, IndexResponseFilter.CACHE_CONTROL))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc.perform(get("/api").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+        ;
+    }
+
+    @Test
+    public void indexVariesByEncoding() throws Exception {
+        this.mockMvc.perform(get("/api").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+        ;
+    }
 }